@@ -0,0 +1,218 @@
+package com.spordi.calendar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spordi.calendar.CalendarApplication;
+import com.spordi.calendar.controller.BookingController;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.repository.BookingRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookingService'i kuumad teed 1k / 100k / 1M broneeringuga H2 mälubaasis.
+ * Lugemise vahemälu on välja lülitatud, et mõõta päringut ja mäppimist, mitte vahemälu tabamust.
+ * Käivitamine: ./mvnw -Pjmh -DskipTests verify  (tulemused: target/jmh-results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    private static final int ROOMS = 20;
+    private static final int USERS = 1000;
+    private static final int FIRST_USER_ID = 1000;
+    private static final int FIRST_ROOM_ID = 1000;
+    private static final int SEED_BATCH = 10_000;
+    private static final String FREE_ROOM = "Benchmark free room";
+
+    @Param({"1000", "100000", "1000000"})
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private BookingController bookingController;
+    private ObjectMapper objectMapper;
+
+    private LocalDateTime base;
+    private final AtomicLong freeSlots = new AtomicLong();
+    private Booking sampleBooking;
+    private List<BookingResponse> sampleResponses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Käsurea argumendid, et need kaaluksid üle application.properties
+        context = new SpringApplicationBuilder(CalendarApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + bookings + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--booking.cache.max-size=0",
+                "--server.port=0",
+                "--logging.level.root=WARN");
+
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        bookingController = context.getBean(BookingController.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        base = LocalDate.now().plusDays(1).atStartOfDay();
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(RoomCatalog.class).refresh();
+
+        // Indeks laeti käivitusel tühjast baasist
+        context.getBean(BookingIntervalIndex.class).load();
+
+        sampleBooking = bookingRepository.findWithUserById(1L).orElseThrow();
+        sampleResponses = bookingService.getActiveBookings(base, base.plusDays(7), null, null, 100).getItems();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // ==================== CREATE ====================
+
+    @Benchmark
+    public BookingResponse createBookingWithoutConflict() {
+        LocalDateTime start = base.plusHours(freeSlots.getAndIncrement());
+        return bookingService.createBooking(new BookingRequest(FREE_ROOM, start, start.plusHours(1)), randomUserId());
+    }
+
+    @Benchmark
+    public Object createBookingWithConflict() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = randomSeededStart(random);
+        try {
+            return bookingService.createBooking(
+                    new BookingRequest(room(random.nextInt(ROOMS)), start, start.plusHours(1)), randomUserId());
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean existsOverlappingBooking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = randomSeededStart(random);
+        return bookingRepository.existsOverlappingBooking(
+                (long) FIRST_ROOM_ID + random.nextInt(ROOMS), start, start.plusMinutes(30));
+    }
+
+    // ==================== MAPPING / JSON ====================
+
+    @Benchmark
+    public BookingResponse mapToResponse() {
+        return bookingService.mapToResponse(sampleBooking);
+    }
+
+    @Benchmark
+    public byte[] serializeResponseList() throws Exception {
+        return objectMapper.writeValueAsBytes(sampleResponses);
+    }
+
+    // ==================== LIST ENDPOINTS (controller + JSON) ====================
+
+    @Benchmark
+    public byte[] listActiveBookingsWeek() throws Exception {
+        LocalDateTime from = randomSeededStart(ThreadLocalRandom.current());
+        return serialize(bookingController.getAllActiveBookings(
+                from, from.plusDays(7), null, null, 100, webRequest()));
+    }
+
+    @Benchmark
+    public byte[] listBookingsByDate() throws Exception {
+        return serialize(bookingController.getBookingsByDate(
+                randomSeededStart(ThreadLocalRandom.current()), webRequest()));
+    }
+
+    @Benchmark
+    public byte[] listUserBookings() throws Exception {
+        return serialize(bookingController.getUserBookings(randomUserId(), webRequest()));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{FIRST_USER_ID + i, "bench" + i, "Benchmark User " + i});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, username, full_name, role) VALUES (?, ?, ?, 'USER')", users);
+
+        // Ruumid avatud ööpäev läbi, tunnised ajad; vaba ruum on viimane
+        List<Object[]> rooms = new ArrayList<>();
+        for (int i = 0; i <= ROOMS; i++) {
+            rooms.add(new Object[]{FIRST_ROOM_ID + i, i < ROOMS ? room(i) : FREE_ROOM, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT});
+        }
+        jdbc.batchUpdate("INSERT INTO rooms (id, name, capacity, opens_at, closes_at, slot_minutes) " +
+                "VALUES (?, ?, 10, ?, ?, 60)", rooms);
+
+        // Iga ruum: järjestikused tunnised broneeringud alates homsest
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= bookings; i++) {
+            LocalDateTime start = base.plusHours((i - 1) / ROOMS);
+            rows.add(new Object[]{i, FIRST_USER_ID + i % USERS, FIRST_ROOM_ID + i % ROOMS, start, start.plusHours(1), base});
+            if (rows.size() == SEED_BATCH || i == bookings) {
+                jdbc.batchUpdate("INSERT INTO bookings (id, user_id, room_id, start_time, end_time, status, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, 'ACTIVE', ?)", rows);
+                rows.clear();
+            }
+        }
+
+        jdbc.execute("ALTER SEQUENCE bookings_seq RESTART WITH " + (bookings + 1));
+    }
+
+    private LocalDateTime randomSeededStart(ThreadLocalRandom random) {
+        return base.plusHours(random.nextInt(Math.max(1, bookings / ROOMS)));
+    }
+
+    private long randomUserId() {
+        return FIRST_USER_ID + ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    private static String room(int index) {
+        return "Room " + index;
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+
+    private byte[] serialize(ResponseEntity<?> response) throws Exception {
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+}
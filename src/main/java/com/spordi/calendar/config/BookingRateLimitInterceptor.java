@@ -0,0 +1,61 @@
+package com.spordi.calendar.config;
+
+import com.spordi.calendar.exception.RateLimitExceededException;
+import com.spordi.calendar.model.User;
+import com.spordi.calendar.service.BookingRateLimiter;
+import com.spordi.calendar.service.UserRoleCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Rate limit on booking and waitlist changes only; reads (GET, SSE, exports) are not limited here
+@Component
+@RequiredArgsConstructor
+public class BookingRateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> MUTATIONS = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final BookingRateLimiter rateLimiter;
+    private final UserRoleCache userRoleCache;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!MUTATIONS.contains(request.getMethod())) {
+            return true;
+        }
+        Long userId = userId(request);
+        if (userId == null) {
+            // Invalid User-Id; the controller rejects it with 400
+            return true;
+        }
+
+        // Unknown users get the USER limit; the service rejects them later anyway
+        User.Role role = userRoleCache.role(userId).orElse(User.Role.USER);
+        long waitNanos = rateLimiter.tryAcquire(userId, role);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new RateLimitExceededException("Too many booking requests, retry in " + retryAfter + " s", retryAfter);
+        }
+        return true;
+    }
+
+    // Same default as the controllers: no User-Id header = user 1
+    private static Long userId(HttpServletRequest request) {
+        String header = request.getHeader("User-Id");
+        if (header == null) {
+            return 1L;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.spordi.calendar.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    // With spring.main.lazy-initialization=true (prod) only request-driven beans wait for first use.
+    // A lazy @Scheduled bean would never be scheduled, and listeners sit on the booking write path.
+    @Bean
+    static LazyInitializationExcludeFilter backgroundBeansStayEager() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (SmartLifecycle.class.isAssignableFrom(beanType) || hasBackgroundMethods(beanType));
+    }
+
+    // @TransactionalEventListener is meta-annotated with @EventListener
+    private static boolean hasBackgroundMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                        || AnnotatedElementUtils.hasAnnotation(method, EventListener.class) ? Boolean.TRUE : null)
+                .isEmpty();
+    }
+}
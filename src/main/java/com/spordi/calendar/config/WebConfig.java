@@ -0,0 +1,21 @@
+package com.spordi.calendar.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "booking.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final BookingRateLimitInterceptor bookingRateLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bookingRateLimitInterceptor)
+                .addPathPatterns("/api/bookings", "/api/bookings/**", "/api/waitlist", "/api/waitlist/**");
+    }
+}
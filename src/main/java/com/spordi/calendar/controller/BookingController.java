@@ -1,13 +1,35 @@
 package com.spordi.calendar.controller;
 
+import com.spordi.calendar.dto.BatchBookingRequest;
+import com.spordi.calendar.dto.BatchBookingResponse;
+import com.spordi.calendar.dto.BookingChanges;
+import com.spordi.calendar.dto.BookingHistoryEntry;
+import com.spordi.calendar.dto.BookingPage;
 import com.spordi.calendar.dto.BookingRequest;
 import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.dto.FreeSlot;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.service.BookingAuditLog;
+import com.spordi.calendar.service.BookingCalendarFeed;
+import com.spordi.calendar.service.BookingExporter;
+import com.spordi.calendar.service.BookingIdempotency;
 import com.spordi.calendar.service.BookingService;
+import com.spordi.calendar.service.BookingStreamBroadcaster;
+import com.spordi.calendar.service.BookingSync;
+import com.spordi.calendar.service.BookingVersions;
+import com.spordi.calendar.service.RoomCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,20 +41,126 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingIdempotency bookingIdempotency;
+    private final BookingVersions bookingVersions;
+    private final BookingStreamBroadcaster bookingStreamBroadcaster;
+    private final BookingExporter bookingExporter;
+    private final BookingAuditLog bookingAuditLog;
+    private final RoomCatalog roomCatalog;
+    private final BookingSync bookingSync;
+    private final BookingCalendarFeed bookingCalendarFeed;
 
+    // Idempotency-Key: a retry with the same key gets the original response (Idempotent-Replayed: true)
     @PostMapping
     public ResponseEntity<BookingResponse> createBooking(
             @RequestBody BookingRequest request,
+            @RequestHeader(value = "User-Id", defaultValue = "1") Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+
+        BookingIdempotency.Result result = bookingIdempotency.createBooking(idempotencyKey, request, userId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            response.header("Idempotent-Replayed", "true");
+        }
+        return response.body(result.booking());
+    }
+
+    // Many slots or a recurrence rule in one request, validated together
+    @PostMapping("/batch")
+    public ResponseEntity<BatchBookingResponse> createBookings(
+            @RequestBody BatchBookingRequest request,
             @RequestHeader(value = "User-Id", defaultValue = "1") Long userId) {
 
-        BookingResponse booking = bookingService.createBooking(request, userId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+        BatchBookingResponse result = bookingService.createBookings(request, userId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 
+    // Calendar window, keyset paginated: pass nextCursor from the previous page as 'cursor'
     @GetMapping
-    public ResponseEntity<List<BookingResponse>> getAllActiveBookings() {
-        List<BookingResponse> bookings = bookingService.getAllActiveBookings();
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<BookingPage> getAllActiveBookings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String room,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest webRequest) {
+
+        Long roomId = roomCatalog.resolveId(room);
+        // Without 'from' the window starts today, so the same URL means another window after midnight
+        BookingService.Window window = bookingService.resolveWindow(from, to);
+        String etag = bookingVersions.etag(roomId) + "-" + window.from() + "-" + window.to();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        BookingPage page = bookingService.getActiveBookings(window.from(), window.to(), roomId, cursor, limit);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(page);
+    }
+
+    // Live booking deltas as server-sent events (created/cancelled/deleted), optionally for one room.
+    // Only this instance's changes - clients behind a load balancer catch up with /changes.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingChanges(@RequestParam(required = false) String room) {
+        return bookingStreamBroadcaster.subscribe(roomCatalog.resolveId(room));
+    }
+
+    // Delta sync: bookings created/cancelled since the token (0 = all) and ids of deleted ones, plus the next token
+    @GetMapping("/changes")
+    public ResponseEntity<BookingChanges> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) String room,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(bookingSync.changes(since, roomCatalog.resolveId(room), userId, limit));
+    }
+
+    // iCalendar feeds for calendar subscriptions (Outlook, Google); rendered output is cached and updated incrementally
+    @GetMapping("/feed/user/{userId}.ics")
+    public ResponseEntity<String> getUserFeed(@PathVariable Long userId, WebRequest webRequest) {
+        return calendarFeed(bookingCalendarFeed.forUser(userId), webRequest);
+    }
+
+    @GetMapping("/feed/room/{roomId}.ics")
+    public ResponseEntity<String> getRoomFeed(@PathVariable Long roomId, WebRequest webRequest) {
+        return calendarFeed(bookingCalendarFeed.forRoom(roomId), webRequest);
+    }
+
+    // Free intervals of at least minMinutes in the given rooms, e.g. ?rooms=A,B&from=...&to=...
+    @GetMapping("/availability")
+    public ResponseEntity<List<FreeSlot>> getAvailability(
+            @RequestParam List<String> rooms,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "60") int minMinutes,
+            @RequestParam(required = false) Integer limit) {
+
+        List<FreeSlot> slots = bookingService.findAvailability(rooms, from, to, minMinutes, limit);
+        return ResponseEntity.ok(slots);
+    }
+
+    // Admin only - booking history as CSV or NDJSON, streamed row by row from the database
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String room,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = "User-Id", defaultValue = "1") Long userId) {
+
+        BookingExporter.Format exportFormat = BookingExporter.Format.parse(format);
+        BookingStatus bookingStatus = BookingExporter.parseStatus(status);
+        Long roomId = roomCatalog.resolveId(room);
+        bookingExporter.checkExport(userId, from, to);
+
+        StreamingResponseBody body = out -> bookingExporter.export(exportFormat, from, to, roomId, bookingStatus, out);
+        String filename = "bookings-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + exportFormat.getExtension();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -41,19 +169,36 @@ public class BookingController {
         return ResponseEntity.ok(booking);
     }
 
+    // Created / cancelled / deleted events of a booking, also after it was deleted
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<BookingHistoryEntry>> getBookingHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(bookingAuditLog.history(id));
+    }
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<BookingResponse>> getUserBookings(@PathVariable Long userId) {
+    public ResponseEntity<List<BookingResponse>> getUserBookings(@PathVariable Long userId, WebRequest webRequest) {
+        String etag = bookingVersions.userEtag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
         List<BookingResponse> bookings = bookingService.getUserBookings(userId);
-        return ResponseEntity.ok(bookings);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(bookings);
     }
 
     // Get bookings for specific date
     @GetMapping("/date")
     public ResponseEntity<List<BookingResponse>> getBookingsByDate(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+            WebRequest webRequest) {
+
+        String etag = bookingVersions.etag(null);
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
 
         List<BookingResponse> bookings = bookingService.getBookingsByDate(date);
-        return ResponseEntity.ok(bookings);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(bookings);
     }
 
     // Cancel booking - 24h rule applies
@@ -75,4 +220,25 @@ public class BookingController {
         bookingService.deleteBooking(id, userId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // 304 without touching the database; no-cache so browsers keep revalidating
+    private static ResponseEntity<String> calendarFeed(BookingCalendarFeed.Rendered feed, WebRequest webRequest) {
+        String etag = "f" + feed.version();
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .contentType(MediaType.parseMediaType("text/calendar; charset=UTF-8"))
+                .body(feed.body());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .build();
+    }
+}
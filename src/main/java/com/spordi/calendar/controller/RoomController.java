@@ -0,0 +1,45 @@
+package com.spordi.calendar.controller;
+
+import com.spordi.calendar.dto.RoomRequest;
+import com.spordi.calendar.dto.RoomResponse;
+import com.spordi.calendar.service.RoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rooms")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class RoomController {
+
+    private final RoomService roomService;
+
+    // Served from the in-memory room catalog
+    @GetMapping
+    public ResponseEntity<List<RoomResponse>> getRooms() {
+        return ResponseEntity.ok(roomService.getRooms());
+    }
+
+    // Admin only
+    @PostMapping
+    public ResponseEntity<RoomResponse> createRoom(
+            @RequestBody RoomRequest request,
+            @RequestHeader(value = "User-Id", defaultValue = "1") Long userId) {
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(roomService.createRoom(request, userId));
+    }
+
+    // Admin only; existing bookings keep their times
+    @PutMapping("/{id}")
+    public ResponseEntity<RoomResponse> updateRoom(
+            @PathVariable Long id,
+            @RequestBody RoomRequest request,
+            @RequestHeader(value = "User-Id", defaultValue = "1") Long userId) {
+
+        return ResponseEntity.ok(roomService.updateRoom(id, request, userId));
+    }
+}
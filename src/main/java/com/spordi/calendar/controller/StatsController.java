@@ -0,0 +1,44 @@
+package com.spordi.calendar.controller;
+
+import com.spordi.calendar.dto.RoomUsageRebuildResult;
+import com.spordi.calendar.dto.RoomUsageReport;
+import com.spordi.calendar.service.RoomCatalog;
+import com.spordi.calendar.service.RoomUsageStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+    private final RoomUsageStatsService roomUsageStatsService;
+    private final RoomCatalog roomCatalog;
+
+    // Occupancy per room and day/week/month from the precomputed hourly aggregates, e.g. ?from=2025-01-01&to=2025-04-01&granularity=WEEK
+    @GetMapping("/rooms")
+    public ResponseEntity<List<RoomUsageReport>> getRoomUsage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String room,
+            @RequestParam(defaultValue = "DAY") String granularity) {
+
+        List<RoomUsageReport> report = roomUsageStatsService.report(
+                from, to, roomCatalog.resolveId(room), RoomUsageStatsService.Granularity.parse(granularity));
+        return ResponseEntity.ok(report);
+    }
+
+    // Admin only - recompute the aggregates from booking history
+    @PostMapping("/rooms/rebuild")
+    public ResponseEntity<RoomUsageRebuildResult> rebuildRoomUsage(
+            @RequestHeader(value = "User-Id", defaultValue = "1") Long userId) {
+
+        return ResponseEntity.ok(roomUsageStatsService.rebuild(userId));
+    }
+}
@@ -0,0 +1,47 @@
+package com.spordi.calendar.controller;
+
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.WaitlistEntryResponse;
+import com.spordi.calendar.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    // Wait for a booked slot; it is booked for you automatically when it is freed
+    @PostMapping
+    public ResponseEntity<WaitlistEntryResponse> join(
+            @RequestBody BookingRequest request,
+            @RequestHeader(value = "User-Id", defaultValue = "1") Long userId) {
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.join(request, userId));
+    }
+
+    // Own entries that are still waiting
+    @GetMapping
+    public ResponseEntity<List<WaitlistEntryResponse>> getWaiting(
+            @RequestHeader(value = "User-Id", defaultValue = "1") Long userId) {
+
+        return ResponseEntity.ok(waitlistService.getWaiting(userId));
+    }
+
+    // Leave the waitlist
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leave(
+            @PathVariable Long id,
+            @RequestHeader(value = "User-Id", defaultValue = "1") Long userId) {
+
+        waitlistService.leave(id, userId);
+        return ResponseEntity.noContent().build();
+    }
+}
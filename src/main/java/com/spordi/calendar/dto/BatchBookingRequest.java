@@ -0,0 +1,18 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchBookingRequest {
+
+    private List<BookingRequest> slots;
+    private RecurrenceRule recurrence;
+
+    // true: kõik või mitte midagi; false: salvesta sobivad, ülejäänud tagasi lükatud
+    @Builder.Default
+    private boolean allOrNothing = true;
+}
@@ -0,0 +1,23 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchBookingResponse {
+
+    private List<BookingResponse> created;
+    private List<RejectedSlot> rejected;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedSlot {
+
+        private BookingRequest slot;
+        private String reason;
+    }
+}
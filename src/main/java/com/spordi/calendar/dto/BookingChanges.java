@@ -0,0 +1,20 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingChanges {
+
+    // Created or cancelled since the given token (current state of the booking)
+    private List<BookingResponse> changed;
+    // Ids of bookings deleted since the given token
+    private List<Long> deleted;
+    // Pass as ?since= on the next call
+    private long token;
+    // More changes are waiting; call again with the new token right away
+    private boolean hasMore;
+}
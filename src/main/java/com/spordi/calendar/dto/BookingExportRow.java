@@ -0,0 +1,25 @@
+package com.spordi.calendar.dto;
+
+import com.spordi.calendar.model.Booking.BookingStatus;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Üks ekspordi rida. Päringus konstruktoriga (JPQL "new"), et persistence context ei kasvaks.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingExportRow {
+
+    private Long id;
+    private Long userId;
+    private String username;
+    private String roomName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private BookingStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime cancelledAt;
+}
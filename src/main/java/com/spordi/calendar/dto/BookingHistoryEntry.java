@@ -0,0 +1,20 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingHistoryEntry {
+
+    private Long bookingId;
+    private String type;
+    private Long actorId;
+    private Long userId;
+    private String roomName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,14 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingPage {
+
+    private List<BookingResponse> items;
+    private String nextCursor;
+}
@@ -12,10 +12,12 @@ public class BookingResponse {
     private Long id;
     private Long userId;
     private String username;
+    private Long roomId;
     private String roomName;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime cancelledAt;
+    private Long changeSeq;
 }
@@ -0,0 +1,15 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FreeSlot {
+
+    private String roomName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
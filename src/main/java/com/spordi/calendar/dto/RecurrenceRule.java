@@ -0,0 +1,23 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Korduv broneering: esimene aeg ja 'count' kordust iga 'intervalDays' päeva järel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurrenceRule {
+
+    private String roomName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    @Builder.Default
+    private int intervalDays = 7;
+
+    private int count;
+}
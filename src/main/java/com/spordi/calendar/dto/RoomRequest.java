@@ -0,0 +1,17 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomRequest {
+
+    private String name;
+    private int capacity;
+    private LocalTime opensAt;
+    private LocalTime closesAt;
+    private int slotMinutes;
+}
@@ -0,0 +1,18 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomResponse {
+
+    private Long id;
+    private String name;
+    private int capacity;
+    private LocalTime opensAt;
+    private LocalTime closesAt;
+    private int slotMinutes;
+}
@@ -0,0 +1,15 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomUsageRebuildResult {
+
+    private int chunks;
+    private long bookings;
+    private long rows;
+    private long durationMillis;
+}
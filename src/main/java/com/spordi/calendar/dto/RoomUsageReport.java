@@ -0,0 +1,21 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomUsageReport {
+
+    private Long roomId;
+    private String roomName;
+    private LocalDate periodStart;
+    private long bookedMinutes;
+    private long bookings;
+    private long cancellations;
+    private double cancellationRate;
+    // Tund (0-23), millal ruum oli perioodis kõige rohkem broneeritud; null kui üldse mitte
+    private Integer peakHour;
+}
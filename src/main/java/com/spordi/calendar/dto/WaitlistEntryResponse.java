@@ -0,0 +1,22 @@
+package com.spordi.calendar.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntryResponse {
+
+    private Long id;
+    private Long userId;
+    private Long roomId;
+    private String roomName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime closedAt;
+    private Long bookingId;
+}
@@ -0,0 +1,16 @@
+package com.spordi.calendar.event;
+
+import com.spordi.calendar.dto.BookingResponse;
+
+/**
+ * Avaldatakse iga broneeringu muudatuse järel (loomine, tühistamine, kustutamine).
+ * Kuulajad reageerivad sellele pärast transaktsiooni commit'i.
+ */
+public record BookingChangedEvent(Type type, BookingResponse booking, Long actorId) {
+
+    public enum Type {
+        CREATED,
+        CANCELLED,
+        DELETED
+    }
+}
@@ -0,0 +1,7 @@
+package com.spordi.calendar.event;
+
+/**
+ * Avaldatakse, kui ruum lisati või muudeti; RoomCatalog laeb pärast commit'i uue hetktõmmise.
+ */
+public record RoomsChangedEvent(Long roomId) {
+}
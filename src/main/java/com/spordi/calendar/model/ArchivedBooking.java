@@ -0,0 +1,53 @@
+package com.spordi.calendar.model;
+
+import com.spordi.calendar.model.Booking.BookingStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lõppenud või ammu tühistatud broneering, mis on viidud tabelist bookings välja.
+ * Sama id ja veerud mis Booking, et päringud saaksid mõlemast tabelist lugeda.
+ */
+@Entity
+@Table(name = "bookings_archive", indexes = {
+        @Index(name = "idx_bookings_archive_user_start", columnList = "user_id, startTime"),
+        @Index(name = "idx_bookings_archive_start", columnList = "startTime")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedBooking {
+
+    // Algse broneeringu id (ei genereerita uuesti)
+    @Id
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id")
+    private Room room;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime cancelledAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
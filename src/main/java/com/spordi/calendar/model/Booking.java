@@ -6,23 +6,34 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_room_status_time", columnList = "room_id, status, startTime, endTime"),
+        @Index(name = "idx_bookings_status_start", columnList = "status, startTime"),
+        @Index(name = "idx_bookings_user_start", columnList = "user_id, startTime"),
+        @Index(name = "idx_bookings_change_seq", columnList = "changeSeq"),
+        @Index(name = "idx_bookings_room_change_seq", columnList = "room_id, changeSeq"),
+        @Index(name = "idx_bookings_user_change_seq", columnList = "user_id, changeSeq")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Booking {
 
+    // Pooled sequence instead of IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @Column(nullable = false)
-    private String roomName;
+    // Ruumi andmed (nimi, lahtiolekuaeg) tulevad RoomCatalog'ist, getRoom().getId() ei lae ruumi
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id")
+    private Room room;
 
     @Column(nullable = false)
     private LocalDateTime startTime;
@@ -39,6 +50,9 @@ public class Booking {
 
     private LocalDateTime cancelledAt;
 
+    // Viimase muudatuse (loomine, tühistamine) järjenumber delta-sünkrooni jaoks; vanadel ridadel täidetakse käivitusel
+    private Long changeSeq;
+
     public enum BookingStatus {
         ACTIVE,
         CANCELLED
@@ -0,0 +1,58 @@
+package com.spordi.calendar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Broneeringu ajaloo kirje (ainult lisatakse, kunagi ei muudeta).
+ * Jääb alles ka siis, kui broneering kustutatakse.
+ */
+@Entity
+@Table(name = "booking_events", indexes = {
+        @Index(name = "idx_booking_events_booking", columnList = "booking_id, occurredAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingAuditEntry {
+
+    // Pooled sequence, so the writer can insert a whole batch at once
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_events_seq")
+    @SequenceGenerator(name = "booking_events_seq", sequenceName = "booking_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType type;
+
+    // Kes muudatuse tegi (kasutaja või admin)
+    private Long actorId;
+
+    // Broneeringu seis muudatuse hetkel
+    private Long userId;
+
+    @Column(nullable = false)
+    private String roomName;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum EventType {
+        CREATED,
+        CANCELLED,
+        DELETED
+    }
+}
@@ -0,0 +1,41 @@
+package com.spordi.calendar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kustutatud broneeringu jälg delta-sünkrooni jaoks: klient saab teada, et broneering tuleb eemaldada.
+ */
+@Entity
+@Table(name = "booking_tombstones", indexes = {
+        @Index(name = "idx_tombstones_change_seq", columnList = "changeSeq"),
+        @Index(name = "idx_tombstones_room_change_seq", columnList = "room_id, changeSeq"),
+        @Index(name = "idx_tombstones_user_change_seq", columnList = "user_id, changeSeq")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(nullable = false)
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,47 @@
+package com.spordi.calendar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key'ga tehtud broneeringu vastus (kui booking.idempotency.persist=true).
+ * Salvestatakse broneeringuga samas transaktsioonis; unikaalne võti hoiab ära topelt broneeringu ka mitme instantsi korral.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_key",
+                columnNames = {"user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_created", columnList = "createdAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    // IDENTITY: INSERT kohe, et unikaalsuse rikkumine tuleks välja enne commit'i
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 päringu sisust: sama võti teise sisuga on viga
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private Long bookingId;
+
+    // Algne BookingResponse JSON-ina
+    @Column(nullable = false, length = 4000)
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
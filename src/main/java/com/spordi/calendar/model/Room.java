@@ -0,0 +1,41 @@
+package com.spordi.calendar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Entity
+@Table(name = "rooms")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Room {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    // Mitu inimest ruumi mahub
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(nullable = false)
+    private LocalTime opensAt;
+
+    // 00:00 = avatud päeva lõpuni
+    @Column(nullable = false)
+    private LocalTime closesAt;
+
+    // Broneering algab ja lõpeb nende minutite kaupa, alates avamisajast
+    @Column(nullable = false)
+    private int slotMinutes;
+
+    // Kasvab iga kord, kui lahtiolekuajad või aja pikkus muutuvad; aegade hõivamine viitab sellele
+    @Column(nullable = false)
+    private int slotVersion;
+}
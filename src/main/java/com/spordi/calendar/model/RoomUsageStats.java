@@ -0,0 +1,48 @@
+package com.spordi.calendar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Ruumi kasutus ühe tunni kohta (ruum, päev, tund).
+ * Hoitakse ajakohasena broneeringu muudatustega samas transaktsioonis; aruanded loevad ainult seda tabelit.
+ */
+@Entity
+@Table(name = "room_usage_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_usage_room_day_hour",
+                columnNames = {"room_id", "usage_day", "usage_hour"}),
+        indexes = @Index(name = "idx_room_usage_day", columnList = "usage_day, room_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomUsageStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "usage_day", nullable = false)
+    private LocalDate day;
+
+    // 0-23
+    @Column(name = "usage_hour", nullable = false)
+    private int hour;
+
+    // Aktiivsete broneeringute minutid selles tunnis
+    @Column(nullable = false)
+    private long bookedMinutes;
+
+    // Selles tunnis alanud broneeringud (ka tühistatud)
+    @Column(nullable = false)
+    private long bookings;
+
+    // Neist tühistatud
+    @Column(nullable = false)
+    private long cancellations;
+}
@@ -0,0 +1,59 @@
+package com.spordi.calendar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ootejärjekorra kirje: kasutaja soovib juba broneeritud aega.
+ * Kui aeg vabaneb, muudetakse kirje järjekorras (createdAt, id) broneeringuks.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_room_status_time", columnList = "room_id, status, startTime, endTime"),
+        @Index(name = "idx_waitlist_user_status", columnList = "user_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id")
+    private Room room;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // PROMOTED: millal ja milliseks broneeringuks; CANCELLED / EXPIRED: millal
+    private LocalDateTime closedAt;
+
+    private Long bookingId;
+
+    public enum Status {
+        WAITING,
+        PROMOTED,
+        CANCELLED,
+        EXPIRED
+    }
+}
@@ -0,0 +1,67 @@
+package com.spordi.calendar.repository;
+
+import com.spordi.calendar.dto.BookingExportRow;
+import com.spordi.calendar.model.ArchivedBooking;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    @EntityGraph(attributePaths = "user")
+    List<ArchivedBooking> findByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<ArchivedBooking> findWithUserById(Long id);
+
+    // One INSERT ... SELECT per chunk; rows keep their original id
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO bookings_archive " +
+            "(id, user_id, room_id, start_time, end_time, status, created_at, cancelled_at, archived_at) " +
+            "SELECT id, user_id, room_id, start_time, end_time, status, created_at, cancelled_at, LOCALTIMESTAMP " +
+            "FROM bookings WHERE id IN (:ids)")
+    int copyFromBookings(@Param("ids") Collection<Long> ids);
+
+    // Usage stats rebuild
+    @Query("SELECT a FROM ArchivedBooking a WHERE a.startTime >= :from AND a.startTime < :to")
+    List<ArchivedBooking> findStartingBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    Optional<ArchivedBooking> findFirstByOrderByStartTimeAsc();
+
+    Optional<ArchivedBooking> findFirstByOrderByStartTimeDesc();
+
+    // Export, same shape and order as BookingRepository.streamForExport
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.spordi.calendar.dto.BookingExportRow(" +
+            "a.id, u.id, u.username, r.name, a.startTime, a.endTime, a.status, a.createdAt, a.cancelledAt) " +
+            "FROM ArchivedBooking a JOIN a.user u JOIN a.room r " +
+            "WHERE a.startTime >= :from " +
+            "AND a.startTime < :to " +
+            "AND (:roomId IS NULL OR r.id = :roomId) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "ORDER BY a.startTime ASC, a.id ASC")
+    Stream<BookingExportRow> streamForExport(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("roomId") Long roomId,
+            @Param("status") BookingStatus status
+    );
+}
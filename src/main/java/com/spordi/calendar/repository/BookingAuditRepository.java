@@ -0,0 +1,11 @@
+package com.spordi.calendar.repository;
+
+import com.spordi.calendar.model.BookingAuditEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BookingAuditRepository extends JpaRepository<BookingAuditEntry, Long> {
+
+    List<BookingAuditEntry> findByBookingIdOrderByOccurredAtAscIdAsc(Long bookingId);
+}
@@ -1,21 +1,50 @@
 // src/main/java/com/spordi/calendar/repository/BookingRepository.java
 package com.spordi.calendar.repository;
 
+import com.spordi.calendar.dto.BookingExportRow;
+import com.spordi.calendar.dto.BookingResponse;
 import com.spordi.calendar.model.Booking;
 import com.spordi.calendar.model.Booking.BookingStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @EntityGraph(attributePaths = "user")
     List<Booking> findByUserId(Long userId);
 
+    @EntityGraph(attributePaths = "user")
+    Optional<Booking> findWithUserById(Long id);
+
+    // User list: live and archived rows in one statement; room name is filled in from the room catalog
+    @Query("SELECT new com.spordi.calendar.dto.BookingResponse(" +
+            "b.id, u.id, u.username, b.room.id, CAST(NULL AS String), b.startTime, b.endTime, " +
+            "CAST(b.status AS String), b.createdAt, b.cancelledAt, b.changeSeq) " +
+            "FROM Booking b JOIN b.user u WHERE u.id = :userId " +
+            "UNION ALL " +
+            "SELECT new com.spordi.calendar.dto.BookingResponse(" +
+            "a.id, u.id, u.username, a.room.id, CAST(NULL AS String), a.startTime, a.endTime, " +
+            "CAST(a.status AS String), a.createdAt, a.cancelledAt, CAST(NULL AS Long)) " +
+            "FROM ArchivedBooking a JOIN a.user u WHERE u.id = :userId")
+    List<BookingResponse> findUserBookingsWithArchive(@Param("userId") Long userId);
+
     List<Booking> findByStatus(BookingStatus status);
 
     // ✅ NEW: all bookings with given status, ordered by startTime ascending
@@ -23,20 +52,152 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
 
+    List<Booking> findByStatusAndEndTimeAfter(BookingStatus status, LocalDateTime time);
+
+    // Slot reclaim: active bookings of a room that have not ended; a locking read sees rows other instances just committed
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    List<Booking> findByRoomIdAndStatusAndEndTimeAfter(Long roomId, BookingStatus status, LocalDateTime time);
+
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
             "WHERE b.status = 'ACTIVE' " +
-            "AND b.roomName = :roomName " +
+            "AND b.room.id = :roomId " +
             "AND b.startTime < :endTime " +
             "AND b.endTime > :startTime")
     boolean existsOverlappingBooking(
-            @Param("roomName") String roomName,
+            @Param("roomId") Long roomId,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime
     );
 
-    // ✅ restore the date-based query you had before
+    // Active bookings of a room that overlap [from, to)
+    @Query("SELECT b FROM Booking b WHERE b.status = 'ACTIVE' " +
+            "AND b.room.id = :roomId " +
+            "AND b.startTime < :to " +
+            "AND b.endTime > :from " +
+            "ORDER BY b.startTime ASC")
+    List<Booking> findActiveOverlapping(
+            @Param("roomId") Long roomId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Same for several rooms, sorted for a single sweep per room
     @Query("SELECT b FROM Booking b WHERE b.status = 'ACTIVE' " +
-            "AND DATE(b.startTime) = DATE(:date) " +
+            "AND b.room.id IN :roomIds " +
+            "AND b.startTime < :to " +
+            "AND b.endTime > :from " +
+            "ORDER BY b.room.id ASC, b.startTime ASC")
+    List<Booking> findActiveOverlappingInRooms(
+            @Param("roomIds") Collection<Long> roomIds,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Half-open range [from, to) so idx_bookings_status_start can be used
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user WHERE b.status = 'ACTIVE' " +
+            "AND b.startTime >= :from " +
+            "AND b.startTime < :to " +
             "ORDER BY b.startTime ASC")
-    List<Booking> findActiveBookingsByDate(@Param("date") LocalDateTime date);
+    List<Booking> findActiveBookingsStartingBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Keyset page: rows after (afterStart, afterId) in (startTime, id) order, starting before :to
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user WHERE b.status = 'ACTIVE' " +
+            "AND (:roomId IS NULL OR b.room.id = :roomId) " +
+            "AND b.startTime < :to " +
+            "AND (b.startTime > :afterStart OR (b.startTime = :afterStart AND b.id > :afterId)) " +
+            "ORDER BY b.startTime ASC, b.id ASC")
+    List<Booking> findActivePage(
+            @Param("roomId") Long roomId,
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") Long afterId,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+
+    // Usage stats rebuild: every booking (any status) starting in [from, to); IN keeps idx_bookings_status_start usable
+    @Query("SELECT b FROM Booking b WHERE b.status IN :statuses " +
+            "AND b.startTime >= :from " +
+            "AND b.startTime < :to")
+    List<Booking> findStartingBetween(
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Archiver: ended, or cancelled long ago; keyset on id so each chunk continues where the last one stopped
+    @Query("SELECT b FROM Booking b WHERE b.id > :afterId " +
+            "AND (b.endTime < :cutoff OR (b.status = 'CANCELLED' AND b.cancelledAt < :cutoff)) " +
+            "ORDER BY b.id ASC")
+    List<Booking> findArchivable(
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    // Cancel in one statement: ownership, status and the cancel deadline are in the WHERE clause; 0 rows = refused
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :cancelled, b.cancelledAt = :now " +
+            "WHERE b.id = :id " +
+            "AND b.user.id = :userId " +
+            "AND b.status = :active " +
+            "AND b.startTime >= :earliestStart")
+    int cancelIfAllowed(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("earliestStart") LocalDateTime earliestStart,
+            @Param("now") LocalDateTime now,
+            @Param("active") BookingStatus active,
+            @Param("cancelled") BookingStatus cancelled
+    );
+
+    // Change number is taken only after the cancel went through
+    @Modifying
+    @Query("UPDATE Booking b SET b.changeSeq = :changeSeq WHERE b.id = :id")
+    int setChangeSeq(@Param("id") Long id, @Param("changeSeq") long changeSeq);
+
+    // Delete only if the row still has the status the caller saw; 0 rows = gone or changed meanwhile
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id = :id AND b.status = :status")
+    int deleteIfStatus(@Param("id") Long id, @Param("status") BookingStatus status);
+
+    // Delta sync: rows changed with since < changeSeq <= upTo, in sequence order
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user WHERE b.changeSeq > :since " +
+            "AND b.changeSeq <= :upTo " +
+            "AND (:roomId IS NULL OR b.room.id = :roomId) " +
+            "AND (:userId IS NULL OR b.user.id = :userId) " +
+            "ORDER BY b.changeSeq ASC")
+    List<Booking> findChangedSince(
+            @Param("since") long since,
+            @Param("upTo") long upTo,
+            @Param("roomId") Long roomId,
+            @Param("userId") Long userId,
+            Pageable pageable
+    );
+
+    Optional<Booking> findFirstByOrderByStartTimeAsc();
+
+    Optional<Booking> findFirstByOrderByStartTimeDesc();
+
+    // Export: DTO rows straight from the cursor (nothing kept in the persistence context), fetched in chunks
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.spordi.calendar.dto.BookingExportRow(" +
+            "b.id, u.id, u.username, r.name, b.startTime, b.endTime, b.status, b.createdAt, b.cancelledAt) " +
+            "FROM Booking b JOIN b.user u JOIN b.room r " +
+            "WHERE b.startTime >= :from " +
+            "AND b.startTime < :to " +
+            "AND (:roomId IS NULL OR r.id = :roomId) " +
+            "AND (:status IS NULL OR b.status = :status) " +
+            "ORDER BY b.startTime ASC, b.id ASC")
+    Stream<BookingExportRow> streamForExport(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("roomId") Long roomId,
+            @Param("status") BookingStatus status
+    );
 }
@@ -0,0 +1,28 @@
+package com.spordi.calendar.repository;
+
+import com.spordi.calendar.model.BookingTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookingTombstoneRepository extends JpaRepository<BookingTombstone, Long> {
+
+    // Deletes with since < changeSeq <= upTo, in sequence order
+    @Query("SELECT t FROM BookingTombstone t WHERE t.changeSeq > :since " +
+            "AND t.changeSeq <= :upTo " +
+            "AND (:roomId IS NULL OR t.roomId = :roomId) " +
+            "AND (:userId IS NULL OR t.userId = :userId) " +
+            "ORDER BY t.changeSeq ASC")
+    List<BookingTombstone> findChangedSince(
+            @Param("since") long since,
+            @Param("upTo") long upTo,
+            @Param("roomId") Long roomId,
+            @Param("userId") Long userId,
+            Pageable pageable
+    );
+}
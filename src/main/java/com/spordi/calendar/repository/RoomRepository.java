@@ -0,0 +1,23 @@
+package com.spordi.calendar.repository;
+
+import com.spordi.calendar.model.Room;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RoomRepository extends JpaRepository<Room, Long> {
+
+    boolean existsByName(String name);
+
+    boolean existsByNameAndIdNot(String name, Long id);
+
+    // Room update: one admin change per room at a time; slot claims of other transactions check the
+    // room's grid version through their foreign key and wait for this lock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id = :id")
+    Optional<Room> findForUpdateById(@Param("id") Long id);
+}
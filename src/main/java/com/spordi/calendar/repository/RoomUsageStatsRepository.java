@@ -0,0 +1,30 @@
+package com.spordi.calendar.repository;
+
+import com.spordi.calendar.model.RoomUsageStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomUsageStatsRepository extends JpaRepository<RoomUsageStats, Long> {
+
+    @Query("SELECT s FROM RoomUsageStats s " +
+            "WHERE s.day >= :from AND s.day < :to " +
+            "AND (:roomId IS NULL OR s.roomId = :roomId) " +
+            "ORDER BY s.roomId ASC, s.day ASC, s.hour ASC")
+    List<RoomUsageStats> findInRange(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("roomId") Long roomId
+    );
+
+    Optional<RoomUsageStats> findFirstByOrderByDayDesc();
+
+    @Modifying
+    @Query("DELETE FROM RoomUsageStats s WHERE s.day < :day")
+    int deleteBefore(@Param("day") LocalDate day);
+}
@@ -0,0 +1,64 @@
+package com.spordi.calendar.repository;
+
+import com.spordi.calendar.model.WaitlistEntry;
+import com.spordi.calendar.model.WaitlistEntry.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByUserIdAndStatusOrderByStartTimeAsc(Long userId, Status status);
+
+    long countByUserIdAndStatus(Long userId, Status status);
+
+    boolean existsByUserIdAndRoomIdAndStartTimeAndEndTimeAndStatus(
+            Long userId, Long roomId, LocalDateTime startTime, LocalDateTime endTime, Status status);
+
+    // Waiting entries of a room that overlap the freed interval [from, to), first come first served
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.status = 'WAITING' " +
+            "AND w.room.id = :roomId " +
+            "AND w.startTime < :to " +
+            "AND w.endTime > :from " +
+            "AND w.startTime > :now " +
+            "ORDER BY w.createdAt ASC, w.id ASC")
+    List<WaitlistEntry> findWaitingOverlapping(
+            @Param("roomId") Long roomId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("now") LocalDateTime now
+    );
+
+    // Sweep: per room, the span of all future waiting entries as [roomId, min start, max end]
+    @Query("SELECT w.room.id, MIN(w.startTime), MAX(w.endTime) FROM WaitlistEntry w " +
+            "WHERE w.status = 'WAITING' AND w.startTime > :now " +
+            "GROUP BY w.room.id")
+    List<Object[]> findWaitingSpans(@Param("now") LocalDateTime now);
+
+    // Promote only if still waiting (the user may have left the list meanwhile); 0 rows = not promoted
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :promoted, w.bookingId = :bookingId, w.closedAt = :now " +
+            "WHERE w.id = :id AND w.status = :waiting")
+    int markPromoted(
+            @Param("id") Long id,
+            @Param("bookingId") Long bookingId,
+            @Param("now") LocalDateTime now,
+            @Param("waiting") Status waiting,
+            @Param("promoted") Status promoted
+    );
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :expired, w.closedAt = :now " +
+            "WHERE w.status = :waiting AND w.startTime <= :now")
+    int expireStarted(
+            @Param("now") LocalDateTime now,
+            @Param("waiting") Status waiting,
+            @Param("expired") Status expired
+    );
+}
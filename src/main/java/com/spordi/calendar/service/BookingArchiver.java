@@ -0,0 +1,137 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.repository.ArchivedBookingRepository;
+import com.spordi.calendar.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Viib lõppenud ja ammu tühistatud broneeringud tabelist bookings tabelisse bookings_archive,
+ * et kattuvuse ja kalendri päringud töötaksid väikese tabeliga.
+ * Iga tükk on eraldi lühike transaktsioon (INSERT ... SELECT + DELETE), pikki lukke ei hoita.
+ * Mitme instantsi korral arhiveerib korraga üks (ScheduledJobLock).
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+
+    private static final String LOCK_NAME = "booking-archive";
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archiveRepository;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingSlotClaims slotClaims;
+    private final ScheduledJobLock jobLock;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration lockAtMost;
+
+    private final AtomicBoolean archiving = new AtomicBoolean();
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           ArchivedBookingRepository archiveRepository,
+                           BookingIntervalIndex intervalIndex,
+                           BookingSlotClaims slotClaims,
+                           ScheduledJobLock jobLock,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${booking.archive.horizon:90d}") Duration horizon,
+                           @Value("${booking.archive.chunk-size:500}") int chunkSize,
+                           @Value("${booking.archive.pause:100ms}") Duration pause,
+                           @Value("${booking.archive.lock-at-most:2h}") Duration lockAtMost) {
+        this.bookingRepository = bookingRepository;
+        this.archiveRepository = archiveRepository;
+        this.intervalIndex = intervalIndex;
+        this.slotClaims = slotClaims;
+        this.jobLock = jobLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.lockAtMost = lockAtMost;
+    }
+
+    /**
+     * Arhiveeri kõik, mis lõppes (või tühistati) varem kui 'horizon' tagasi
+     */
+    @Scheduled(cron = "${booking.archive.cron:0 30 3 * * *}")
+    public int archive() {
+        if (!archiving.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        try {
+            // Indeks on iga instantsi mälus; arhiveerib ainult luku saanud instants
+            int pruned = intervalIndex.pruneEndedBefore(LocalDateTime.now());
+            if (!jobLock.tryLock(LOCK_NAME, lockAtMost)) {
+                log.info("Pruned {} ended slots from the index, bookings are archived by another instance", pruned);
+                return 0;
+            }
+
+            try {
+                LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+                int total = archiveOlderThan(cutoff);
+                Integer released = transactionTemplate.execute(status -> slotClaims.releaseBefore(LocalDateTime.now()));
+                log.info("Archived {} bookings older than {}, pruned {} ended slots from the index, released {} past slot claims",
+                        total, cutoff, pruned, released);
+                return total;
+            } finally {
+                jobLock.unlock(LOCK_NAME);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            archiving.set(false);
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private int archiveOlderThan(LocalDateTime cutoff) throws InterruptedException {
+        long afterId = Long.MIN_VALUE;
+        int total = 0;
+
+        while (true) {
+            List<Booking> chunk = nextChunk(cutoff, afterId);
+            if (chunk.isEmpty()) {
+                return total;
+            }
+            total += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+
+            if (chunk.size() < chunkSize) {
+                return total;
+            }
+            // Anna teistele transaktsioonidele vahepeal ruumi
+            Thread.sleep(pause.toMillis());
+        }
+    }
+
+    private List<Booking> nextChunk(LocalDateTime cutoff, long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<Booking> chunk = bookingRepository.findArchivable(cutoff, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return chunk;
+            }
+
+            List<Long> ids = chunk.stream().map(Booking::getId).toList();
+
+            archiveRepository.copyFromBookings(ids);
+            bookingRepository.deleteAllByIdInBatch(ids);
+            return chunk;
+        });
+    }
+}
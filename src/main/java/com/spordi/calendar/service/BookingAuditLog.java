@@ -0,0 +1,237 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingHistoryEntry;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.event.BookingChangedEvent;
+import com.spordi.calendar.model.BookingAuditEntry;
+import com.spordi.calendar.repository.BookingAuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Broneeringute ajalugu (booking_events) kirjutatakse taustal partiidena, mitte muudatuse päringus.
+ * Järjekord on piiratud: kui kirjutaja ei jõua järele, kirjutab muudatuse tegija kirje ise (aeglasem, aga ei kao).
+ * Rakenduse sulgemisel kirjutatakse järjekord enne andmebaasi sulgemist tühjaks.
+ */
+@Slf4j
+@Component
+public class BookingAuditLog implements SmartLifecycle {
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final BookingAuditRepository auditRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<BookingAuditEntry> queue;
+    private final int flushSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final Counter synchronousWrites;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public BookingAuditLog(BookingAuditRepository auditRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${booking.audit.queue-capacity:10000}") int queueCapacity,
+                           @Value("${booking.audit.flush-size:200}") int flushSize,
+                           @Value("${booking.audit.flush-interval:1s}") Duration flushInterval,
+                           @Value("${booking.audit.offer-timeout:50ms}") Duration offerTimeout,
+                           @Value("${booking.audit.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.auditRepository = auditRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+
+        // Oma transaktsioon: AFTER_COMMIT kuulajas on välimine transaktsioon juba lõppenud
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("booking.audit.queue", queue, Collection::size)
+                .description("Audit entries waiting to be written")
+                .register(meterRegistry);
+        this.synchronousWrites = Counter.builder("booking.audit.sync.writes")
+                .description("Audit entries written by the caller because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingResponse booking = event.booking();
+
+        enqueue(BookingAuditEntry.builder()
+                .bookingId(booking.getId())
+                .type(BookingAuditEntry.EventType.valueOf(event.type().name()))
+                .actorId(event.actorId())
+                .userId(booking.getUserId())
+                .roomName(booking.getRoomName())
+                .startTime(booking.getStartTime())
+                .endTime(booking.getEndTime())
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Broneeringu ajalugu (ka kustutatud broneeringul). Viimased muudatused võivad olla veel järjekorras.
+     */
+    @Transactional(readOnly = true)
+    public List<BookingHistoryEntry> history(Long bookingId) {
+        return auditRepository.findByBookingIdOrderByOccurredAtAscIdAsc(bookingId).stream()
+                .map(entry -> BookingHistoryEntry.builder()
+                        .bookingId(entry.getBookingId())
+                        .type(entry.getType().name())
+                        .actorId(entry.getActorId())
+                        .userId(entry.getUserId())
+                        .roomName(entry.getRoomName())
+                        .startTime(entry.getStartTime())
+                        .endTime(entry.getEndTime())
+                        .occurredAt(entry.getOccurredAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Kirjuta kõik järjekorras olevad kirjed kohe (kutsuja lõimes)
+     */
+    public void flush() {
+        List<BookingAuditEntry> batch = new ArrayList<>(flushSize);
+        while (queue.drainTo(batch, flushSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("booking-audit-writer").daemon().start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not finish in {}, flushing {} entries directly", shutdownTimeout, queue.size());
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Madal faas: peatub pärast veebiserverit, et ka viimased päringud jõuaksid järjekorda
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void enqueue(BookingAuditEntry entry) {
+        try {
+            if (running && queue.offer(entry, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Järjekord täis või kirjutaja peatatud: kirjuta ise, ära viska minema
+        synchronousWrites.increment();
+        write(List.of(entry));
+    }
+
+    // Partii täis (flushSize) või esimesest kirjest möödas flushInterval → kirjuta
+    private void writeLoop() {
+        List<BookingAuditEntry> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                BookingAuditEntry first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < flushSize && running) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || wait <= 0) {
+                        break;
+                    }
+                    BookingAuditEntry next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, flushSize - batch.size());
+
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                write(batch);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<BookingAuditEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> auditRepository.saveAll(batch));
+                return;
+            } catch (RuntimeException e) {
+                // Ebaõnnestunud katse jättis id-d külge; uuel katsel peavad need olema uued kirjed
+                batch.forEach(entry -> entry.setId(null));
+
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    log.error("Could not write {} booking audit entries: {}", batch.size(), batch, e);
+                    return;
+                }
+                log.warn("Writing {} booking audit entries failed (attempt {}), retrying", batch.size(), attempt, e);
+                try {
+                    Thread.sleep(200L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.spordi.calendar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spordi.calendar.dto.BookingChanges;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.exception.NotFoundException;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * iCalendar (.ics) voog kasutaja või ruumi broneeringutest (Outlook / Google kalendri tellimus).
+ * Valmis tekst on vahemälus koos sünkrooni tokeniga. Uue päringu korral küsitakse ainult muudatused pärast
+ * seda tokenit (BookingSync), uuendatakse muutunud sündmused ja tekst koostatakse uuesti ainult siis, kui midagi muutus.
+ * Kui ükski broneering pole vahepeal muutunud, vastatakse ilma päringuta.
+ */
+@Component
+public class BookingCalendarFeed {
+
+    private static final int CHANGES_PAGE = 1000;
+    private static final DateTimeFormatter ICS_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final BookingSync bookingSync;
+    private final BookingChangeSequence changeSequence;
+    private final RoomCatalog roomCatalog;
+    private final UserRoleCache userRoleCache;
+    private final Cache<FeedKey, Feed> feeds;
+    private final ZoneId zone;
+    private final Duration pastWindow;
+
+    public BookingCalendarFeed(BookingSync bookingSync,
+                               BookingChangeSequence changeSequence,
+                               RoomCatalog roomCatalog,
+                               UserRoleCache userRoleCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${booking.feed.max-size:1000}") long maxSize,
+                               @Value("${booking.feed.expire-after-access:1h}") Duration expireAfterAccess,
+                               @Value("${booking.feed.past-window:30d}") Duration pastWindow,
+                               @Value("${booking.feed.zone:}") String zone) {
+        this.bookingSync = bookingSync;
+        this.changeSequence = changeSequence;
+        this.roomCatalog = roomCatalog;
+        this.userRoleCache = userRoleCache;
+        this.pastWindow = pastWindow;
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.feeds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, feeds, "bookings.feed");
+    }
+
+    /**
+     * Kasutaja broneeringud
+     */
+    public Rendered forUser(Long userId) {
+        String username = userRoleCache.username(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        return render(new FeedKey(userId, null), "Broneeringud: " + username);
+    }
+
+    /**
+     * Ruumi broneeringud
+     */
+    public Rendered forRoom(Long roomId) {
+        RoomCatalog.Entry room = roomCatalog.findById(roomId)
+                .orElseThrow(() -> new NotFoundException("Room not found"));
+        return render(new FeedKey(null, roomId), room.name());
+    }
+
+    // ==================== Helper Methods ====================
+
+    private Rendered render(FeedKey key, String name) {
+        Feed feed = feeds.get(key, k -> new Feed(name));
+
+        // Sama voo paralleelsed päringud ootavad üksteist, erinevad vood ei oota
+        synchronized (feed) {
+            if (feed.body != null && feed.token >= changeSequence.stableToken()) {
+                return new Rendered(feed.body, feed.version);
+            }
+            boolean changed = feed.body == null;
+
+            BookingChanges changes;
+            do {
+                changes = bookingSync.changes(feed.token, key.roomId(), key.userId(), CHANGES_PAGE);
+                changes.getChanged().forEach(booking -> changed(feed, booking));
+                changes.getDeleted().forEach(feed.events::remove);
+                changed |= !changes.getChanged().isEmpty() || !changes.getDeleted().isEmpty();
+                feed.token = changes.getToken();
+            } while (changes.isHasMore());
+
+            if (changed) {
+                // Vanad sündmused välja, et voog ei kasvaks lõputult
+                LocalDateTime horizon = LocalDateTime.now().minus(pastWindow);
+                feed.events.values().removeIf(event -> event.endTime().isBefore(horizon));
+                feed.body = body(feed);
+                feed.version = feed.token;
+            }
+            return new Rendered(feed.body, feed.version);
+        }
+    }
+
+    private void changed(Feed feed, BookingResponse booking) {
+        if (BookingStatus.ACTIVE.name().equals(booking.getStatus())) {
+            feed.events.put(booking.getId(), new Event(booking.getEndTime(), event(booking)));
+        } else {
+            feed.events.remove(booking.getId());
+        }
+    }
+
+    private String body(Feed feed) {
+        StringBuilder ics = new StringBuilder(256 + feed.events.size() * 256)
+                .append("BEGIN:VCALENDAR\r\n")
+                .append("VERSION:2.0\r\n")
+                .append("PRODID:-//Spordi Calendar//Bookings//ET\r\n")
+                .append("CALSCALE:GREGORIAN\r\n")
+                .append("X-WR-CALNAME:").append(escape(feed.name)).append("\r\n");
+        feed.events.values().forEach(event -> ics.append(event.text()));
+        return ics.append("END:VCALENDAR\r\n").toString();
+    }
+
+    private String event(BookingResponse booking) {
+        return "BEGIN:VEVENT\r\n" +
+                "UID:booking-" + booking.getId() + "@spordi-calendar\r\n" +
+                "DTSTAMP:" + utc(booking.getCreatedAt()) + "\r\n" +
+                "DTSTART:" + utc(booking.getStartTime()) + "\r\n" +
+                "DTEND:" + utc(booking.getEndTime()) + "\r\n" +
+                "SUMMARY:" + escape(booking.getRoomName()) + "\r\n" +
+                "LOCATION:" + escape(booking.getRoomName()) + "\r\n" +
+                "DESCRIPTION:" + escape("Broneerija: " + booking.getUsername()) + "\r\n" +
+                "END:VEVENT\r\n";
+    }
+
+    private String utc(LocalDateTime time) {
+        return time.atZone(zone).withZoneSameInstant(ZoneOffset.UTC).format(ICS_TIME);
+    }
+
+    // RFC 5545 TEXT: \ ; , ja reavahetus märgistatakse
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\n", "\\n");
+    }
+
+    /**
+     * Voo tekst ja versioon (ETag'i jaoks): token, mille juures tekst viimati muutus
+     */
+    public record Rendered(String body, long version) {
+    }
+
+    private record FeedKey(Long userId, Long roomId) {
+    }
+
+    private record Event(LocalDateTime endTime, String text) {
+    }
+
+    // Ühe voo olek; muudetakse ainult feed'i lukuga
+    private static final class Feed {
+
+        private final String name;
+        private final Map<Long, Event> events = new TreeMap<>();
+        private long token;
+        private long version;
+        private String body;
+
+        private Feed(String name) {
+            this.name = name;
+        }
+    }
+}
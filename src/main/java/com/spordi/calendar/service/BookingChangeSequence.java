@@ -0,0 +1,51 @@
+package com.spordi.calendar.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Broneeringute muudatuste järjenumbrid (changeSeq), ühised kõigile instantsidele: loendur on andmebaasis
+ * (booking_change_counter) ja seda suurendatakse kutsuja transaktsioonis.
+ * Loenduri rida on lukus kuni commit'ini, seega järgmise transaktsiooni numbrid tulevad alles pärast eelmise
+ * commit'i: numbrite järjekord on commit'ide järjekord ja loenduri lõpetatud väärtus on stabiilne piir -
+ * klient, kes küsib muudatusi kuni selle piirini, ei jäta ühtegi vahele.
+ * Numbrid võetakse alles siis, kui muudatus kindlasti tehakse, et lukk oleks võimalikult lühike.
+ */
+@Component
+public class BookingChangeSequence {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingChangeSequence(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Järgmine number käimasolevale transaktsioonile
+     */
+    public long next() {
+        return reserve(1);
+    }
+
+    /**
+     * count järjestikust numbrit ühe lausega; tagastab esimese
+     */
+    public long reserve(int count) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Change sequence requires an active transaction");
+        }
+
+        jdbcTemplate.update("UPDATE booking_change_counter SET last_value = last_value + ? WHERE id = 1", count);
+        Long last = jdbcTemplate.queryForObject("SELECT last_value FROM booking_change_counter WHERE id = 1", Long.class);
+        return last - count + 1;
+    }
+
+    /**
+     * Suurim number, mille kõik eelmised muudatused on lõpetatud (sünkrooni token).
+     * Kutsuja transaktsioonis, et token ja sellele järgnev muudatuste päring näeksid sama seisu.
+     */
+    public long stableToken() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM booking_change_counter WHERE id = 1", Long.class);
+    }
+}
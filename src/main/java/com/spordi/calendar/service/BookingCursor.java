@@ -0,0 +1,32 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset-lehekülgede kursor: viimase tagastatud broneeringu (startTime, id).
+ * Kliendile antakse see läbipaistmatu base64 stringina.
+ */
+record BookingCursor(LocalDateTime startTime, Long id) {
+
+    String encode() {
+        String raw = startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static BookingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new BookingCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor", e);
+        }
+    }
+}
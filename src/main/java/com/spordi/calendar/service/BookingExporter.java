@@ -0,0 +1,188 @@
+package com.spordi.calendar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spordi.calendar.dto.BookingExportRow;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.repository.ArchivedBookingRepository;
+import com.spordi.calendar.repository.BookingRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Broneeringute eksport (CSV / NDJSON) otse andmebaasi kursorist väljundisse.
+ * Mälus on korraga üks rida ja kirjutamise puhver, ridade arvust sõltumata.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingExporter {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final Comparator<BookingExportRow> EXPORT_ORDER =
+            Comparator.comparing(BookingExportRow::getStartTime).thenComparing(BookingExportRow::getId);
+    private static final String CSV_HEADER =
+            "id,userId,username,roomName,startTime,endTime,status,createdAt,cancelledAt";
+
+    @Getter
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Format must be csv or ndjson");
+            }
+        }
+    }
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archiveRepository;
+    private final UserRoleCache userRoleCache;
+    private final ObjectMapper objectMapper;
+    private final BookingMetrics metrics;
+
+    /**
+     * Kontrollid enne voo algust - pärast esimest baiti veavastust enam saata ei saa
+     * REEGEL: eksportida saab ainult admin
+     */
+    @Transactional(readOnly = true)
+    public void checkExport(Long userId, LocalDateTime from, LocalDateTime to) {
+        userRoleCache.requireAdmin(userId, "Only admin can export bookings");
+
+        if (!to.isAfter(from)) {
+            throw new BusinessException("'to' must be after 'from'");
+        }
+    }
+
+    /**
+     * Kirjuta broneeringud (ka arhiveeritud), mis algavad vahemikus [from, to), väljundisse
+     * roomId / status == null → kõik
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, LocalDateTime from, LocalDateTime to, Long roomId,
+                       BookingStatus status, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        try (Stream<BookingExportRow> current = bookingRepository.streamForExport(from, to, roomId, status);
+             Stream<BookingExportRow> archived = archiveRepository.streamForExport(from, to, roomId, status)) {
+            Iterator<BookingExportRow> iterator = merge(current.iterator(), archived.iterator());
+            while (iterator.hasNext()) {
+                BookingExportRow row = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+
+                // Klient saab andmeid juba eksportimise ajal
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        metrics.resultSize("export", (int) Math.min(rows, Integer.MAX_VALUE));
+        return rows;
+    }
+
+    public static BookingStatus parseStatus(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return BookingStatus.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Status must be ACTIVE or CANCELLED");
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    // Kaks (algusaeg, id) järgi sorteeritud voogu üheks, ilma kumbagi mällu lugemata
+    private static Iterator<BookingExportRow> merge(Iterator<BookingExportRow> first, Iterator<BookingExportRow> second) {
+        return new Iterator<>() {
+            private BookingExportRow nextFirst = first.hasNext() ? first.next() : null;
+            private BookingExportRow nextSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public BookingExportRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                BookingExportRow row;
+                if (nextSecond == null || (nextFirst != null && EXPORT_ORDER.compare(nextFirst, nextSecond) <= 0)) {
+                    row = nextFirst;
+                    nextFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    row = nextSecond;
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return row;
+            }
+        };
+    }
+
+    private static void writeCsv(Writer writer, BookingExportRow row) throws IOException {
+        writer.write(String.join(",",
+                csv(row.getId()),
+                csv(row.getUserId()),
+                csv(row.getUsername()),
+                csv(row.getRoomName()),
+                csv(row.getStartTime()),
+                csv(row.getEndTime()),
+                csv(row.getStatus()),
+                csv(row.getCreatedAt()),
+                csv(row.getCancelledAt())));
+        writer.write('\n');
+    }
+
+    // RFC 4180: jutumärkidesse, kui väärtuses on eraldaja, jutumärk või reavahetus
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
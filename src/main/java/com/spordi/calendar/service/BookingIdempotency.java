@@ -0,0 +1,247 @@
+package com.spordi.calendar.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.exception.IdempotencyConflictException;
+import com.spordi.calendar.model.IdempotencyRecord;
+import com.spordi.calendar.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key: sama võtmega kordus saab algse vastuse kohe, ilma kontrollide ja INSERT'ita.
+ * Vastused on piiratud suurusega ja aeguvas mälus; soovi korral ka andmebaasis (booking.idempotency.persist),
+ * et need üle elaksid restardi ja oleksid ühised mitmele instantsile.
+ * Sama võtmega samaaegne päring ootab esimese tulemust, mitte ei broneeri uuesti.
+ */
+@Slf4j
+@Component
+public class BookingIdempotency {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final BookingService bookingService;
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncCache<Key, Stored> responses;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final boolean persist;
+    private final MeterRegistry meterRegistry;
+
+    public BookingIdempotency(BookingService bookingService,
+                              IdempotencyRecordRepository recordRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${booking.idempotency.max-size:100000}") long maxSize,
+                              @Value("${booking.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${booking.idempotency.wait-timeout:5s}") Duration waitTimeout,
+                              @Value("${booking.idempotency.persist:false}") boolean persist) {
+        this.bookingService = bookingService;
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.persist = persist;
+        this.meterRegistry = meterRegistry;
+
+        // Ebaõnnestunud (erindiga lõppenud) päringud eemaldab Caffeine ise - neid võib uuesti proovida
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "bookings.idempotency");
+    }
+
+    /**
+     * Loo broneering; idempotencyKey == null → tavaline loomine
+     */
+    public Result createBooking(String idempotencyKey, BookingRequest request, Long userId) {
+        if (idempotencyKey == null) {
+            return new Result(bookingService.createBooking(request, userId), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        Key key = new Key(userId, idempotencyKey);
+        String fingerprint = fingerprint(request);
+
+        CompletableFuture<Stored> pending = new CompletableFuture<>();
+        CompletableFuture<Stored> existing = responses.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            return replay(await(existing), fingerprint);
+        }
+
+        try {
+            Optional<Stored> persisted = persist ? findPersisted(key) : Optional.empty();
+            if (persisted.isPresent()) {
+                pending.complete(persisted.get());
+                return replay(persisted.get(), fingerprint);
+            }
+
+            BookingResponse response = persist
+                    ? createAndPersist(key, fingerprint, request)
+                    : bookingService.createBooking(request, userId);
+
+            pending.complete(new Stored(fingerprint, response));
+            count("created");
+            return new Result(response, false);
+        } catch (DataIntegrityViolationException e) {
+            // Teine instants salvestas sama võtme samal ajal; meie broneering rullus tagasi
+            Optional<Stored> winner = findPersisted(key);
+            if (winner.isEmpty()) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+            pending.complete(winner.get());
+            return replay(winner.get(), fingerprint);
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Kustuta aegunud võtmed andmebaasist (mälus aeguvad need ise)
+     */
+    @Scheduled(fixedDelayString = "${booking.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        if (!persist) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                recordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    // Ainult testidele: unusta mälus olevad vastused (andmebaasi omad jäävad)
+    void evictLocal() {
+        responses.synchronous().invalidateAll();
+    }
+
+    // ==================== Helper Methods ====================
+
+    private BookingResponse createAndPersist(Key key, String fingerprint, BookingRequest request) {
+        // Broneering ja võti samas transaktsioonis: kas mõlemad või kumbki
+        return transactionTemplate.execute(status -> {
+            BookingResponse response = bookingService.createBooking(request, key.userId());
+            recordRepository.save(IdempotencyRecord.builder()
+                    .userId(key.userId())
+                    .idempotencyKey(key.idempotencyKey())
+                    .fingerprint(fingerprint)
+                    .bookingId(response.getId())
+                    .response(toJson(response))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            return response;
+        });
+    }
+
+    private Optional<Stored> findPersisted(Key key) {
+        return recordRepository.findByUserIdAndIdempotencyKey(key.userId(), key.idempotencyKey())
+                .filter(record -> record.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(record -> new Stored(record.getFingerprint(), fromJson(record.getResponse())));
+    }
+
+    private Stored await(CompletableFuture<Stored> existing) {
+        try {
+            return existing.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            count("in_progress");
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (ExecutionException e) {
+            // Esimene päring ebaõnnestus - sama viga ka kordusele
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Booking was interrupted", e);
+        }
+    }
+
+    private Result replay(Stored stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            count("mismatch");
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different booking");
+        }
+        count("replayed");
+        return new Result(stored.response(), true);
+    }
+
+    private void count(String result) {
+        Counter.builder("booking.idempotency")
+                .description("Booking requests with an Idempotency-Key by outcome")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String fingerprint(BookingRequest request) {
+        String content = request.getRoomName() + "|" + request.getStartTime() + "|" + request.getEndTime();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(BookingResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize booking " + response.getId(), e);
+        }
+    }
+
+    private BookingResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, BookingResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored idempotent response", e);
+        }
+    }
+
+    public record Result(BookingResponse booking, boolean replayed) {
+    }
+
+    private record Key(Long userId, String idempotencyKey) {
+    }
+
+    private record Stored(String fingerprint, BookingResponse response) {
+    }
+}
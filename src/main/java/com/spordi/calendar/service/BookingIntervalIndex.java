@@ -0,0 +1,185 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.event.BookingChangedEvent;
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Mälus hoitav aktiivsete broneeringute indeks ruumide kaupa (võti on ruumi id).
+ * Ühe ruumi aktiivsed broneeringud ei kattu, seega piisab kattuvuse kontrolliks
+ * ühest O(log n) otsingust: viimane broneering, mis algab enne uue lõppu.
+ * Lisaks id järgi, et tühistamine / kustutamine saaks sündmuse andmed ilma broneeringut lugemata.
+ * Indeks näeb ainult selle instantsi muudatusi ja on ainult eelkontroll: broneerimisel otsustab aegade hõivamine
+ * andmebaasis (BookingSlotClaims). Kui hõivamine õnnestub, on indeksi kattuvad kirjed vananenud ja need eemaldatakse.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, NavigableMap<LocalDateTime, Slot>> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, Slot> byId = new ConcurrentHashMap<>();
+
+    @Value("${booking.overlap-index.verify:false}")
+    private boolean verify;
+
+    private volatile boolean ready;
+
+    /**
+     * Laadi tulevased aktiivsed broneeringud andmebaasist
+     * (minevikku ei saa broneerida, seega lõppenud broneeringuid pole vaja)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Booking> bookings = bookingRepository.findByStatusAndEndTimeAfter(
+                BookingStatus.ACTIVE, LocalDateTime.now());
+
+        for (Booking booking : bookings) {
+            add(new Slot(booking.getId(), booking.getRoom().getId(), booking.getUser().getId(),
+                    booking.getStartTime(), booking.getEndTime(), booking.getCreatedAt()));
+        }
+
+        ready = true;
+        log.info("Booking interval index loaded with {} active bookings", bookings.size());
+    }
+
+    /**
+     * Kas aeg kattub mõne aktiivse broneeringuga?
+     * Kuni indeks pole laetud, küsitakse andmebaasist; edasi ainult mälust.
+     */
+    public boolean hasOverlap(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!ready) {
+            return bookingRepository.existsOverlappingBooking(roomId, startTime, endTime);
+        }
+
+        boolean indexed = overlaps(roomId, startTime, endTime);
+
+        if (verify) {
+            boolean stored = bookingRepository.existsOverlappingBooking(roomId, startTime, endTime);
+            if (stored != indexed) {
+                log.warn("Interval index disagrees with database for room {} {} - {}: index={}, db={}",
+                        roomId, startTime, endTime, indexed, stored);
+            }
+            return stored;
+        }
+        return indexed;
+    }
+
+    /**
+     * Aktiivse tulevase broneeringu andmed id järgi; tühi, kui indeks pole laetud või broneeringut seal pole
+     */
+    public Optional<Slot> find(Long bookingId) {
+        return ready ? Optional.ofNullable(byId.get(bookingId)) : Optional.empty();
+    }
+
+    /**
+     * Eemalda broneeringud, mis on enne antud aega lõppenud - uus broneering nendega enam kattuda ei saa
+     */
+    public int pruneEndedBefore(LocalDateTime time) {
+        int removed = 0;
+        for (NavigableMap<LocalDateTime, Slot> slots : rooms.values()) {
+            Iterator<Slot> iterator = slots.headMap(time).values().iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().endTime().isAfter(time)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        byId.values().removeIf(slot -> !slot.endTime().isAfter(time));
+        return removed;
+    }
+
+    // Enne RoomLocks'i vabastamist, et järgmine sama ruumi päring näeks uut broneeringut
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingResponse booking = event.booking();
+
+        switch (event.type()) {
+            case CREATED -> add(new Slot(booking.getId(), booking.getRoomId(), booking.getUserId(),
+                    booking.getStartTime(), booking.getEndTime(), booking.getCreatedAt()));
+            case CANCELLED, DELETED -> remove(booking.getId(), booking.getRoomId(),
+                    booking.getStartTime());
+        }
+    }
+
+    /**
+     * Vahemiku ajad on andmebaasis selle broneeringu omad: kõik seda katvad indeksi kirjed on vananenud
+     * (tühistati või kustutati teises instantsis)
+     */
+    public void evictOverlapping(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        NavigableMap<LocalDateTime, Slot> slots = rooms.get(roomId);
+        if (slots == null) {
+            return;
+        }
+
+        for (Slot slot : slots.headMap(endTime, false).descendingMap().values()) {
+            if (!slot.endTime().isAfter(startTime)) {
+                break;
+            }
+            log.debug("Evicting booking {} from interval index, it is no longer active", slot.bookingId());
+            remove(slot.bookingId(), roomId, slot.startTime());
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private boolean overlaps(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        NavigableMap<LocalDateTime, Slot> slots = rooms.get(roomId);
+        if (slots == null) {
+            return false;
+        }
+
+        Map.Entry<LocalDateTime, Slot> previous = slots.lowerEntry(endTime);
+        return previous != null && previous.getValue().endTime().isAfter(startTime);
+    }
+
+    private void add(Slot slot) {
+        // Vanades andmetes võib sama algusajaga olla mitu rida - kattuvuse jaoks jäta pikem alles
+        rooms.computeIfAbsent(slot.roomId(), room -> new ConcurrentSkipListMap<>())
+                .merge(slot.startTime(), slot, (existing, added) ->
+                        added.endTime().isAfter(existing.endTime()) ? added : existing);
+        byId.put(slot.bookingId(), slot);
+    }
+
+    private void remove(Long bookingId, Long roomId, LocalDateTime startTime) {
+        byId.remove(bookingId);
+
+        NavigableMap<LocalDateTime, Slot> slots = rooms.get(roomId);
+        if (slots == null) {
+            return;
+        }
+
+        Slot slot = slots.get(startTime);
+        if (slot != null && slot.bookingId().equals(bookingId)) {
+            slots.remove(startTime, slot);
+        }
+    }
+
+    public record Slot(Long bookingId, Long roomId, Long userId,
+                       LocalDateTime startTime, LocalDateTime endTime, LocalDateTime createdAt) {
+    }
+}
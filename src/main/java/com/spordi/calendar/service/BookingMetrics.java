@@ -0,0 +1,102 @@
+package com.spordi.calendar.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Broneeringute mõõdikud: loomise etapid, tagasilükkamised põhjuse järgi, päringute tulemuste suurus.
+ * Ruumi silt on piiratud: esimesed N ruumi saavad oma sildi, ülejäänud lähevad "other" alla.
+ */
+@Component
+public class BookingMetrics {
+
+    static final String OTHER_ROOM = "other";
+    static final String NO_ROOM = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxRoomTags;
+    private final Set<String> taggedRooms = ConcurrentHashMap.newKeySet();
+
+    public BookingMetrics(MeterRegistry meterRegistry,
+                          @Value("${booking.metrics.max-room-tags:50}") int maxRoomTags) {
+        this.meterRegistry = meterRegistry;
+        this.maxRoomTags = maxRoomTags;
+    }
+
+    /**
+     * booking.create.phase{phase=lock|insert|claim}
+     */
+    public <T> T timePhase(String phase, Supplier<T> work) {
+        return Timer.builder("booking.create.phase")
+                .description("Time spent in one step of creating a booking")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(work);
+    }
+
+    public void timePhase(String phase, Runnable work) {
+        timePhase(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * booking.rejections{reason, room}
+     */
+    public void rejected(String reason, String roomName) {
+        Counter.builder("booking.rejections")
+                .description("Booking operations refused by a business rule")
+                .tag("reason", reason)
+                .tag("room", roomTag(roomName))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * booking.created{room}
+     */
+    public void created(String roomName) {
+        Counter.builder("booking.created")
+                .tag("room", roomTag(roomName))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * booking.query.results{query} - mitu rida päring andmebaasist tõi
+     */
+    public void resultSize(String query, int size) {
+        DistributionSummary.builder("booking.query.results")
+                .description("Rows returned by a booking list query")
+                .baseUnit("rows")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    /**
+     * Ruumi silt. Piir võib samaaegsel lisamisel paari võrra ületada - see on lubatud,
+     * oluline on, et siltide arv ei kasvaks koos ruumide arvuga lõputult.
+     */
+    String roomTag(String roomName) {
+        if (roomName == null) {
+            return NO_ROOM;
+        }
+        if (taggedRooms.contains(roomName)) {
+            return roomName;
+        }
+        if (taggedRooms.size() < maxRoomTags && taggedRooms.add(roomName)) {
+            return roomName;
+        }
+        return taggedRooms.contains(roomName) ? roomName : OTHER_ROOM;
+    }
+}
@@ -0,0 +1,116 @@
+package com.spordi.calendar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spordi.calendar.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Kasutajapõhine token bucket broneeringu muudatustele (piirangud rolli kaupa, booking.rate-limit.{role}.*).
+ * Iga kasutaja ämber on üks AtomicLong (GCRA: aeg, mil ämber on jälle täis) - ilma lukkudeta, CAS-iga.
+ * capacity = mitu päringut järjest, per-second = mitu päringut sekundis pikas plaanis; capacity 0 = piiranguta.
+ */
+@Component
+public class BookingRateLimiter {
+
+    private final Map<User.Role, Limit> limits;
+    private final Cache<Long, AtomicLong> buckets;
+    private final LongSupplier clock;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public BookingRateLimiter(Environment environment,
+                              MeterRegistry meterRegistry,
+                              @Value("${booking.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this(limitsFrom(environment), idleTimeout, System::nanoTime, meterRegistry);
+    }
+
+    BookingRateLimiter(Map<User.Role, Limit> limits, Duration idleTimeout, LongSupplier clock,
+                       MeterRegistry meterRegistry) {
+        this.limits = limits;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        // Kaua kasutamata ämber oleks niikuinii täis - selle võib unustada
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /**
+     * Võta kasutajalt üks luba.
+     * @return 0, kui lubatud; muidu mitu nanosekundit peab ootama
+     */
+    public long tryAcquire(Long userId, User.Role role) {
+        Limit limit = limits.get(role);
+        if (limit == null || limit.unlimited()) {
+            return 0;
+        }
+
+        long interval = limit.intervalNanos();
+        long tolerance = limit.toleranceNanos();
+        AtomicLong bucket = buckets.get(userId, id -> new AtomicLong(clock.getAsLong()));
+
+        while (true) {
+            long now = clock.getAsLong();
+            long full = bucket.get();
+            long start = full - now > 0 ? full : now;
+
+            if (start - now > tolerance) {
+                rejected(role);
+                return start - now - tolerance;
+            }
+            if (bucket.compareAndSet(full, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void rejected(User.Role role) {
+        Counter.builder("booking.rate_limited")
+                .description("Booking changes refused by the per-user rate limit")
+                .tag("role", role.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static Map<User.Role, Limit> limitsFrom(Environment environment) {
+        Map<User.Role, Limit> limits = new EnumMap<>(User.Role.class);
+        for (User.Role role : User.Role.values()) {
+            String prefix = "booking.rate-limit." + role.name().toLowerCase(Locale.ROOT);
+            limits.put(role, new Limit(
+                    environment.getProperty(prefix + ".capacity", Integer.class, 0),
+                    environment.getProperty(prefix + ".per-second", Double.class, 0.0)));
+        }
+        return limits;
+    }
+
+    public record Limit(int capacity, double perSecond) {
+
+        boolean unlimited() {
+            return capacity <= 0 || perSecond <= 0;
+        }
+
+        long intervalNanos() {
+            return (long) (1_000_000_000L / perSecond);
+        }
+
+        // Mitu intervalli võib ette võtta (capacity - 1, sest üks on kohe kasutusel)
+        long toleranceNanos() {
+            return (capacity - 1) * intervalNanos();
+        }
+    }
+}
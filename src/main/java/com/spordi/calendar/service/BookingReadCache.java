@@ -0,0 +1,103 @@
+package com.spordi.calendar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spordi.calendar.dto.BookingPage;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.event.BookingChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Kalendri lugemispäringute vahemälu (kasutaja, päev, kalendri aken).
+ * Võtmes on BookingVersions'i versioon, mis loeti enne laadimist: muudatuse ajal pooleli olnud laadimine
+ * salvestub vana versiooni alla ja uue versiooniga päring seda ei näe.
+ * Piiratud suurusega, TTL-iga; muudatuse järel eemaldatakse mõjutatud võtmed (vanad versioonid ei jää mälu võtma).
+ */
+@Component
+public class BookingReadCache {
+
+    private final Cache<UserKey, List<BookingResponse>> byUser;
+    private final Cache<DayKey, List<BookingResponse>> byDay;
+    private final Cache<PageKey, BookingPage> pages;
+
+    public BookingReadCache(MeterRegistry meterRegistry,
+                            @Value("${booking.cache.max-size:10000}") long maxSize,
+                            @Value("${booking.cache.ttl:30s}") Duration ttl) {
+        this.byUser = newCache(maxSize, ttl);
+        this.byDay = newCache(maxSize, ttl);
+        this.pages = newCache(maxSize, ttl);
+
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, byUser, "bookings.user");
+        CaffeineCacheMetrics.monitor(meterRegistry, byDay, "bookings.day");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "bookings.page");
+    }
+
+    // version: BookingVersions.user, loetud enne laadimist
+    public List<BookingResponse> userBookings(Long userId, long version, Supplier<List<BookingResponse>> loader) {
+        return byUser.get(new UserKey(userId, version), key -> List.copyOf(loader.get()));
+    }
+
+    // version: BookingVersions.global, loetud enne laadimist
+    public List<BookingResponse> dayBookings(LocalDate day, long version, Supplier<List<BookingResponse>> loader) {
+        return byDay.get(new DayKey(day, version), key -> List.copyOf(loader.get()));
+    }
+
+    // version: BookingVersions.room (või global, kui ruumi pole), loetud enne laadimist
+    public BookingPage activePage(Long roomId, LocalDateTime from, LocalDateTime to, String cursor,
+                                  int limit, long version, Supplier<BookingPage> loader) {
+        return pages.get(new PageKey(roomId, from, to, cursor, limit, version), key -> loader.get());
+    }
+
+    /**
+     * Eemalda muudatusest mõjutatud võtmed kõigi versioonidega.
+     * Õigsus ei sõltu sellest (uus versioon = uus võti), see vabastab ainult mälu.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingResponse booking = event.booking();
+        LocalDate day = booking.getStartTime().toLocalDate();
+
+        byUser.asMap().keySet().removeIf(key -> key.userId().equals(booking.getUserId()));
+        byDay.asMap().keySet().removeIf(key -> key.day().equals(day));
+        pages.asMap().keySet().removeIf(key -> key.contains(booking.getRoomId(), booking.getStartTime()));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private static <K, V> Cache<K, V> newCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    private record UserKey(Long userId, long version) {
+    }
+
+    private record DayKey(LocalDate day, long version) {
+    }
+
+    private record PageKey(Long roomId, LocalDateTime from, LocalDateTime to, String cursor, int limit, long version) {
+
+        boolean contains(Long bookingRoom, LocalDateTime bookingStart) {
+            return (roomId == null || Objects.equals(roomId, bookingRoom))
+                    && !bookingStart.isBefore(from)
+                    && bookingStart.isBefore(to);
+        }
+    }
+}
@@ -1,21 +1,48 @@
 package com.spordi.calendar.service;
 
+import com.spordi.calendar.dto.BatchBookingRequest;
+import com.spordi.calendar.dto.BatchBookingResponse;
+import com.spordi.calendar.dto.BookingPage;
 import com.spordi.calendar.dto.BookingRequest;
 import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.dto.FreeSlot;
+import com.spordi.calendar.dto.RecurrenceRule;
+import com.spordi.calendar.event.BookingChangedEvent;
+import com.spordi.calendar.event.RoomsChangedEvent;
 import com.spordi.calendar.exception.BusinessException;
 import com.spordi.calendar.exception.NotFoundException;
 import com.spordi.calendar.exception.UnauthorizedException;
+import com.spordi.calendar.model.ArchivedBooking;
 import com.spordi.calendar.model.Booking;
 import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.model.BookingTombstone;
 import com.spordi.calendar.model.User;
+import com.spordi.calendar.repository.ArchivedBookingRepository;
 import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.BookingTombstoneRepository;
+import com.spordi.calendar.repository.RoomRepository;
 import com.spordi.calendar.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,8 +50,29 @@ import java.util.stream.Collectors;
 @Transactional
 public class BookingService {
 
+    private static final int DEFAULT_WINDOW_DAYS = 7;
+    private static final int MAX_WINDOW_DAYS = 366;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final int MAX_AVAILABILITY_DAYS = 92;
+    private static final int MAX_AVAILABILITY_ROOMS = 50;
+    private static final int CANCEL_DEADLINE_HOURS = 24;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final RoomCatalog roomCatalog;
+    private final UserRoleCache userRoleCache;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingChangeSequence changeSequence;
+    private final BookingTombstoneRepository tombstoneRepository;
+    private final RoomLocks roomLocks;
+    private final BookingSlotClaims slotClaims;
+    private final BookingReadCache readCache;
+    private final BookingVersions versions;
+    private final BookingMetrics metrics;
+    private final ArchivedBookingRepository archiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== CREATE ====================
 
@@ -34,94 +82,338 @@ public class BookingService {
      * 1. Aeg peab olema tulevikus
      * 2. Lõpuaeg peab olema pärast algusaega
      * 3. Aeg ei tohi olla juba broneeritud
+     * Ruum ja lahtiolekuajad tulevad RoomCatalog'ist. Reegli 3 otsustab ainult aegade hõivamine andmebaasis
+     * (BookingSlotClaims, üks INSERT); lukk ja indeks on selle instantsi piires.
      */
+    @Timed(value = "booking.service", extraTags = {"operation", "create"})
     public BookingResponse createBooking(BookingRequest request, Long userId) {
 
         // Leia kasutaja
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        // REEGEL 1: Aeg peab olema tulevikus
-        if (request.getStartTime().isBefore(LocalDateTime.now())) {
-            throw new BusinessException("Cannot book time in the past");
+        // REEGLID 1-2: aeg tulevikus, lõpp pärast algust, ruumi lahtiolekuajal
+        RoomCatalog.Entry cached = requireRoom(request.getRoomName());
+        validateTimes(cached, request.getStartTime(), request.getEndTime());
+
+        // Ruum lukus kuni commit'ini - sama instantsi päringud samale ruumile ei konkureeri andmebaasis
+        metrics.timePhase("lock", () -> roomLocks.lockUntilCompletion(cached.id()));
+
+        // Kõik OK → Loo broneering
+        Booking booking = newBooking(user, cached, request, LocalDateTime.now());
+        booking.setChangeSeq(changeSequence.next());
+
+        Booking savedBooking = metrics.timePhase("insert", () -> bookingRepository.save(booking));
+
+        // REEGEL 3: andmebaas otsustab - sama aeg juba hõivatud (ka teises instantsis) → primaarvõtme konflikt
+        RoomCatalog.Entry room = claimSlots(cached, savedBooking);
+
+        // Hõivamine õnnestus: indeksi kattuvad kirjed on vananenud (tühistati teises instantsis)
+        intervalIndex.evictOverlapping(room.id(), savedBooking.getStartTime(), savedBooking.getEndTime());
+        metrics.created(room.name());
+
+        BookingResponse response = mapToResponse(savedBooking);
+        eventPublisher.publishEvent(
+                new BookingChangedEvent(BookingChangedEvent.Type.CREATED, response, userId));
+
+        return response;
+    }
+
+    /**
+     * Loo mitu broneeringut korraga (nimekiri ja/või korduv reegel)
+     * Ajad kontrollitakse omavahel mälus, olemasolevate vastu otsustab aegade hõivamine (üks INSERT);
+     * salvestamine JDBC batch'ina. Hõivatud aeg lükatakse tagasi ainult ise (allOrNothing → kõik).
+     */
+    @Timed(value = "booking.service", extraTags = {"operation", "create_batch"})
+    public BatchBookingResponse createBookings(BatchBookingRequest request, Long userId) {
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        List<BookingRequest> slots = expandSlots(request);
+        if (slots.isEmpty()) {
+            throw new BusinessException("No slots to book");
+        }
+        if (slots.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("Cannot book more than " + MAX_BATCH_SIZE + " slots at once");
         }
 
-        // REEGEL 2: Lõpuaeg pärast algusaega
-        if (request.getEndTime().isBefore(request.getStartTime()) ||
-                request.getEndTime().equals(request.getStartTime())) {
-            throw new BusinessException("End time must be after start time");
+        List<BatchBookingResponse.RejectedSlot> rejected = new ArrayList<>();
+        Map<RoomCatalog.Entry, List<BookingRequest>> slotsByRoom = new LinkedHashMap<>();
+
+        // REEGLID 1-2 iga aja kohta eraldi
+        for (BookingRequest slot : slots) {
+            try {
+                RoomCatalog.Entry room = requireRoom(slot.getRoomName());
+                validateTimes(room, slot.getStartTime(), slot.getEndTime());
+                slotsByRoom.computeIfAbsent(room, r -> new ArrayList<>()).add(slot);
+            } catch (BusinessException e) {
+                rejected.add(new BatchBookingResponse.RejectedSlot(slot, e.getMessage()));
+            }
         }
 
-        // REEGEL 3: Kontrolli, kas aeg on juba broneeritud
-        boolean isOverlapping = bookingRepository.existsOverlappingBooking(
-                request.getRoomName(),
-                request.getStartTime(),
-                request.getEndTime()
-        );
+        List<Long> roomIds = slotsByRoom.keySet().stream().map(RoomCatalog.Entry::id).toList();
+        roomLocks.lockAllUntilCompletion(roomIds);
 
-        if (isOverlapping) {
-            throw new BusinessException("This time slot is already booked");
+        // Partii omavahelised kattuvused mälus (esimene aeg jääb); olemasolevad otsustab aegade hõivamine
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        Map<Long, RoomCatalog.Entry> rooms = new LinkedHashMap<>();
+        slotsByRoom.forEach((room, roomSlots) -> {
+            rooms.put(room.id(), room);
+
+            // algus -> lõpp; juba võetud ajad ei kattu, seega piisab eelmisest kirjest
+            NavigableMap<LocalDateTime, LocalDateTime> taken = new TreeMap<>();
+            for (BookingRequest slot : roomSlots) {
+                Map.Entry<LocalDateTime, LocalDateTime> previous = taken.lowerEntry(slot.getEndTime());
+                if (previous != null && previous.getValue().isAfter(slot.getStartTime())) {
+                    metrics.rejected("conflict", room.name());
+                    rejected.add(new BatchBookingResponse.RejectedSlot(slot, "This time slot is already booked"));
+                } else {
+                    taken.put(slot.getStartTime(), slot.getEndTime());
+                    bookings.add(newBooking(user, room, slot, now));
+                }
+            }
+        });
+
+        if (request.isAllOrNothing() && !rejected.isEmpty()) {
+            throw batchRejected(rejected, slots.size());
         }
 
-        // Kõik OK → Loo broneering
-        Booking booking = Booking.builder()
-                .user(user)
-                .roomName(request.getRoomName())
-                .startTime(request.getStartTime())
-                .endTime(request.getEndTime())
-                .status(BookingStatus.ACTIVE)
-                .createdAt(LocalDateTime.now())
-                .build();
+        // Kõik numbrid ühe lausega
+        if (!bookings.isEmpty()) {
+            long changeSeq = changeSequence.reserve(bookings.size());
+            for (Booking booking : bookings) {
+                booking.setChangeSeq(changeSeq++);
+            }
+        }
+        List<Booking> saved = metrics.timePhase("insert", () -> bookingRepository.saveAll(bookings));
+
+        // REEGEL 3: juba hõivatud ajad (ka teise instantsi broneeringud) - broneering tagasi lükatud ja rida kustutatud
+        List<Booking> dropped = new ArrayList<>();
+        List<Booking> pending = new ArrayList<>(saved);
+        while (true) {
+            try {
+                dropped.addAll(metrics.timePhase("claim", () -> slotClaims.claimEach(rooms, pending)));
+                break;
+            } catch (BookingSlotClaims.StaleSlotGridException e) {
+                // Mõne ruumi aegade jaotus muutus teises instantsis: ajad uue jaotuse järgi üle ja uuesti
+                slotClaims.releaseAll(pending.stream().map(Booking::getId).toList());
+                rooms.putAll(reloadGrids(rooms.values()));
+                for (Booking booking : List.copyOf(pending)) {
+                    RoomCatalog.Entry room = rooms.get(booking.getRoom().getId());
+                    try {
+                        validateTimes(room, booking.getStartTime(), booking.getEndTime());
+                    } catch (BusinessException invalid) {
+                        rejected.add(new BatchBookingResponse.RejectedSlot(
+                                new BookingRequest(room.name(), booking.getStartTime(), booking.getEndTime()),
+                                invalid.getMessage()));
+                        pending.remove(booking);
+                        dropped.add(booking);
+                    }
+                }
+            }
+        }
+        // pending'ust eemaldatud on juba tagasi lükatud (ei sobi uue jaotusega), ülejäänud kattusid
+        for (Booking booking : dropped) {
+            if (pending.contains(booking)) {
+                RoomCatalog.Entry room = rooms.get(booking.getRoom().getId());
+                metrics.rejected("conflict", room.name());
+                rejected.add(new BatchBookingResponse.RejectedSlot(
+                        new BookingRequest(room.name(), booking.getStartTime(), booking.getEndTime()),
+                        "This time slot is already booked"));
+            }
+        }
+        Set<Long> droppedIds = dropped.stream().map(Booking::getId).collect(Collectors.toSet());
+        if (!droppedIds.isEmpty()) {
+            if (request.isAllOrNothing()) {
+                throw batchRejected(rejected, slots.size());
+            }
+            bookingRepository.flush();
+            bookingRepository.deleteAllByIdInBatch(droppedIds);
+        }
+
+        // Hõivatud: indeksi kattuvad kirjed on vananenud
+        saved.stream()
+                .filter(booking -> !droppedIds.contains(booking.getId()))
+                .forEach(booking -> intervalIndex.evictOverlapping(
+                        booking.getRoom().getId(), booking.getStartTime(), booking.getEndTime()));
+
+        List<BookingResponse> created = saved.stream()
+                .filter(booking -> !droppedIds.contains(booking.getId()))
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        created.forEach(response -> metrics.created(response.getRoomName()));
 
-        Booking savedBooking = bookingRepository.save(booking);
+        created.forEach(response -> eventPublisher.publishEvent(
+                new BookingChangedEvent(BookingChangedEvent.Type.CREATED, response, userId)));
 
-        return mapToResponse(savedBooking);
+        return BatchBookingResponse.builder()
+                .created(created)
+                .rejected(rejected)
+                .build();
     }
 
     // ==================== READ ====================
 
     /**
-     * Leia broneering ID järgi
+     * Leia broneering ID järgi (vajadusel arhiivist)
      */
+    @Timed(value = "booking.service", extraTags = {"operation", "get"})
+    @Transactional(readOnly = true)
     public BookingResponse getBookingById(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        return bookingRepository.findWithUserById(bookingId)
+                .map(this::mapToResponse)
+                .or(() -> archiveRepository.findWithUserById(bookingId).map(this::mapArchivedToResponse))
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
-
-        return mapToResponse(booking);
     }
 
     /**
-     * Leia kõik kasutaja broneeringud
+     * Leia kõik kasutaja broneeringud koos arhiveeritutega (üks päring)
      */
+    @Timed(value = "booking.service", extraTags = {"operation", "list_user"})
+    @Transactional(readOnly = true)
     public List<BookingResponse> getUserBookings(Long userId) {
-        List<Booking> bookings = bookingRepository.findByUserId(userId);
+        return readCache.userBookings(userId, versions.user(userId), () -> {
+            List<BookingResponse> bookings = bookingRepository.findUserBookingsWithArchive(userId);
+            bookings.forEach(booking -> booking.setRoomName(roomCatalog.get(booking.getRoomId()).name()));
 
-        return bookings.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+            metrics.resultSize("user", bookings.size());
+            return bookings;
+        });
     }
 
     /**
-     * Leia kõik aktiivsed broneeringud (kalender)
+     * Leia aktiivsed broneeringud ajaaknas (kalender), lehekülgede kaupa
+     * Vaikimisi: tänasest 7 päeva, 100 rida lehel
      */
-public List<BookingResponse> getAllActiveBookings() {
-    List<Booking> bookings =
-            bookingRepository.findByStatusOrderByStartTimeAsc(BookingStatus.ACTIVE);
+    @Timed(value = "booking.service", extraTags = {"operation", "list_active"})
+    @Transactional(readOnly = true)
+    public BookingPage getActiveBookings(LocalDateTime from, LocalDateTime to, Long roomId,
+                                         String cursor, int limit) {
+
+        Window window = resolveWindow(from, to);
+        if (limit < 1) {
+            throw new BusinessException("Limit must be positive");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
 
-    return bookings.stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
-}
+        return readCache.activePage(roomId, window.from(), window.to(), cursor, pageSize, versions.room(roomId),
+                () -> loadActivePage(roomId, window.from(), window.to(), cursor, pageSize));
+    }
+
+    /**
+     * Kalendri aken: puuduv 'from' = täna (sõltub kellast, seega kuulub ka ETag'i), puuduv 'to' = 7 päeva hiljem
+     */
+    public Window resolveWindow(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime windowStart = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusDays(DEFAULT_WINDOW_DAYS);
+
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new BusinessException("'to' must be after 'from'");
+        }
+        if (windowEnd.isAfter(windowStart.plusDays(MAX_WINDOW_DAYS))) {
+            throw new BusinessException("Time window cannot be longer than " + MAX_WINDOW_DAYS + " days");
+        }
+        return new Window(windowStart, windowEnd);
+    }
 
     /**
      * Leia broneeringud kuupäeva järgi
      */
+    @Timed(value = "booking.service", extraTags = {"operation", "list_date"})
+    @Transactional(readOnly = true)
     public List<BookingResponse> getBookingsByDate(LocalDateTime date) {
-        List<Booking> bookings = bookingRepository.findActiveBookingsByDate(date);
+        LocalDateTime dayStart = date.toLocalDate().atStartOfDay();
+
+        return readCache.dayBookings(dayStart.toLocalDate(), versions.global(), () -> {
+            List<Booking> bookings = bookingRepository
+                    .findActiveBookingsStartingBetween(dayStart, dayStart.plusDays(1));
+            metrics.resultSize("date", bookings.size());
+            return bookings.stream()
+                    .map(this::mapToResponse)
+                    .collect(Collectors.toList());
+        });
+    }
 
-        return bookings.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    // ==================== AVAILABILITY ====================
+
+    /**
+     * Leia vabad ajad ruumides vähemalt 'minMinutes' pikkusega
+     * Üks päring kõigi ruumide kohta, siis üks sorteeritud läbimine ruumi ja päeva kaupa.
+     * Vabad ajad on ruumi lahtiolekuajal ja aja piiridel, et neid saaks otse broneerida.
+     * limit != null → ainult esimesed N vaba aega (algusaja järgi)
+     */
+    @Timed(value = "booking.service", extraTags = {"operation", "availability"})
+    @Transactional(readOnly = true)
+    public List<FreeSlot> findAvailability(List<String> roomNames, LocalDateTime from, LocalDateTime to,
+                                           int minMinutes, Integer limit) {
+
+        if (roomNames == null || roomNames.isEmpty() || roomNames.size() > MAX_AVAILABILITY_ROOMS) {
+            throw new BusinessException("Give 1-" + MAX_AVAILABILITY_ROOMS + " rooms");
+        }
+        if (minMinutes < 1) {
+            throw new BusinessException("Minimum duration must be positive");
+        }
+        if (limit != null && limit < 1) {
+            throw new BusinessException("Limit must be positive");
+        }
+
+        // Minevikku ei saa broneerida
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = from.isBefore(now) ? now : from;
+
+        if (!to.isAfter(windowStart)) {
+            return List.of();
+        }
+        if (to.isAfter(windowStart.plusDays(MAX_AVAILABILITY_DAYS))) {
+            throw new BusinessException("Time window cannot be longer than " + MAX_AVAILABILITY_DAYS + " days");
+        }
+
+        Set<RoomCatalog.Entry> rooms = new LinkedHashSet<>();
+        for (String roomName : roomNames) {
+            rooms.add(requireRoom(roomName));
+        }
+
+        List<Booking> overlapping = bookingRepository.findActiveOverlappingInRooms(
+                rooms.stream().map(RoomCatalog.Entry::id).toList(), windowStart, to);
+        metrics.resultSize("availability", overlapping.size());
+        Map<Long, List<Booking>> bookingsByRoom = overlapping.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getRoom().getId()));
+
+        Duration minDuration = Duration.ofMinutes(minMinutes);
+        List<FreeSlot> free = new ArrayList<>();
+
+        for (RoomCatalog.Entry room : rooms) {
+            List<Booking> roomBookings = bookingsByRoom.getOrDefault(room.id(), List.of());
+            int first = 0;
+
+            // Iga päeva lahtiolekuaeg eraldi (broneering on alati ühe päeva lahtiolekuaja sees)
+            for (LocalDate day = windowStart.toLocalDate(); day.atStartOfDay().isBefore(to); day = day.plusDays(1)) {
+                LocalDateTime open = max(room.opensOn(day), windowStart);
+                LocalDateTime close = min(room.closesOn(day), to);
+                if (!close.isAfter(open)) {
+                    continue;
+                }
+
+                while (first < roomBookings.size() && !roomBookings.get(first).getEndTime().isAfter(open)) {
+                    first++;
+                }
+
+                LocalDateTime cursor = open;
+                for (int i = first; i < roomBookings.size() && roomBookings.get(i).getStartTime().isBefore(close); i++) {
+                    Booking booking = roomBookings.get(i);
+                    addIfLongEnough(free, room, day, cursor, booking.getStartTime(), minDuration);
+                    if (booking.getEndTime().isAfter(cursor)) {
+                        cursor = booking.getEndTime();
+                    }
+                }
+                addIfLongEnough(free, room, day, cursor, close, minDuration);
+            }
+        }
+
+        free.sort(Comparator.comparing(FreeSlot::getStartTime).thenComparing(FreeSlot::getRoomName));
+        return limit != null && free.size() > limit ? free.subList(0, limit) : free;
     }
 
     // ==================== UPDATE (Cancel) ====================
@@ -129,78 +421,383 @@ public List<BookingResponse> getAllActiveBookings() {
     /**
      * Tühista broneering
      * ÄRIREEGEL: Saab tühistada ainult 24h enne!
+     * Reeglid on ühe UPDATE'i WHERE tingimuses; broneering loetakse ainult siis, kui see ei õnnestunud (et öelda, miks).
      */
+    @Timed(value = "booking.service", extraTags = {"operation", "cancel"})
     public void cancelBooking(Long bookingId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
 
-        // Leia broneering
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Booking not found"));
+        // REEGLID 1-3: oma broneering, pole tühistatud, alguseni vähemalt 24h
+        int cancelled = bookingRepository.cancelIfAllowed(bookingId, userId,
+                now.plusHours(CANCEL_DEADLINE_HOURS), now, BookingStatus.ACTIVE, BookingStatus.CANCELLED);
+        if (cancelled == 0) {
+            throw cancelRefused(bookingId, userId, now);
+        }
+        long changeSeq = changeSequence.next();
+        bookingRepository.setChangeSeq(bookingId, changeSeq);
+        slotClaims.release(bookingId);
+
+        // Sündmuse andmed indeksist; kui seal pole (nt indeks alles laadimata), loe andmebaasist
+        BookingResponse response = intervalIndex.find(bookingId)
+                .map(slot -> mapSlotToResponse(slot, BookingStatus.CANCELLED, now, changeSeq))
+                .orElseGet(() -> mapToResponse(bookingRepository.findWithUserById(bookingId).orElseThrow()));
+
+        eventPublisher.publishEvent(
+                new BookingChangedEvent(BookingChangedEvent.Type.CANCELLED, response, userId));
+    }
+
+    // ==================== DELETE (Admin only) ====================
+
+    /**
+     * Kustuta broneering (ainult admin, ilma 24h reeglita)
+     * Admini roll tuleb UserRoleCache'ist; aktiivne tulevane broneering kustutatakse ühe DELETE'iga indeksi andmetel.
+     */
+    @Timed(value = "booking.service", extraTags = {"operation", "delete"})
+    public void deleteBooking(Long bookingId, Long currentUserId) {
+        if (!userRoleCache.isAdmin(currentUserId)) {
+            throw deleteRefused(bookingId, currentUserId);
+        }
+
+        Optional<BookingIntervalIndex.Slot> indexed = intervalIndex.find(bookingId);
+        BookingResponse response;
+
+        if (indexed.isPresent() && bookingRepository.deleteIfStatus(bookingId, BookingStatus.ACTIVE) == 1) {
+            response = mapSlotToResponse(indexed.get(), BookingStatus.ACTIVE, null, null);
+        } else {
+            // Indeksis pole (möödunud või tühistatud broneering): loe sündmuse jaoks enne kustutamist
+            Booking booking = bookingRepository.findWithUserById(bookingId)
+                    .orElseThrow(() -> new NotFoundException("Booking not found"));
+            response = mapToResponse(booking);
+
+            if (bookingRepository.deleteIfStatus(bookingId, booking.getStatus()) == 0) {
+                throw new BusinessException("Booking was changed by another request, please try again");
+            }
+        }
+
+        long changeSeq = changeSequence.next();
+        response.setChangeSeq(changeSeq);
+        slotClaims.release(bookingId);
+
+        // Delta-sünkrooni kliendid saavad kustutamisest teada jälje kaudu
+        tombstoneRepository.save(BookingTombstone.builder()
+                .bookingId(bookingId)
+                .userId(response.getUserId())
+                .roomId(response.getRoomId())
+                .changeSeq(changeSeq)
+                .deletedAt(LocalDateTime.now())
+                .build());
+
+        eventPublisher.publishEvent(
+                new BookingChangedEvent(BookingChangedEvent.Type.DELETED, response, currentUserId));
+    }
+
+    // ==================== Helper Methods ====================
+
+    /**
+     * Miks tühistamine ei õnnestunud? Samad reeglid samas järjekorras, nüüd loetud broneeringu peal.
+     */
+    private RuntimeException cancelRefused(Long bookingId, Long userId, LocalDateTime now) {
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            return new NotFoundException("Booking not found");
+        }
 
         // REEGEL 1: Kontrolli, kas see on kasutaja oma broneering
         if (!booking.getUser().getId().equals(userId)) {
-            throw new UnauthorizedException("You can only cancel your own bookings");
+            metrics.rejected("not_owner", roomName(booking));
+            return new UnauthorizedException("You can only cancel your own bookings");
         }
 
         // REEGEL 2: Kontrolli, kas on juba tühistatud
         if (booking.getStatus() == BookingStatus.CANCELLED) {
-            throw new BusinessException("Booking is already cancelled");
+            metrics.rejected("already_cancelled", roomName(booking));
+            return new BusinessException("Booking is already cancelled");
         }
 
         // REEGEL 3: 24H REEGEL - Saab tühistada ainult 24h enne!
-        LocalDateTime cancelDeadline = booking.getStartTime().minusHours(24);
-        LocalDateTime now = LocalDateTime.now();
-
+        LocalDateTime cancelDeadline = booking.getStartTime().minusHours(CANCEL_DEADLINE_HOURS);
         if (now.isAfter(cancelDeadline)) {
-            throw new BusinessException(
+            metrics.rejected("cancel_deadline", roomName(booking));
+            return new BusinessException(
                     "Cannot cancel booking within 24 hours of start time. " +
                             "Cancellation deadline was: " + cancelDeadline
             );
         }
 
-        // Kõik OK → Tühista
-        booking.setStatus(BookingStatus.CANCELLED);
-        booking.setCancelledAt(LocalDateTime.now());
-        bookingRepository.save(booking);
+        // Reeglid on nüüd täidetud - broneeringut muudeti UPDATE'i ja lugemise vahel
+        return new BusinessException("Booking was changed by another request, please try again");
     }
 
-    // ==================== DELETE (Admin only) ====================
+    private RuntimeException deleteRefused(Long bookingId, Long currentUserId) {
+        if (userRoleCache.role(currentUserId).isEmpty()) {
+            return new NotFoundException("User not found");
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            return new NotFoundException("Booking not found");
+        }
+
+        metrics.rejected("not_admin", roomName(booking));
+        return new UnauthorizedException("Only admin can delete bookings");
+    }
 
     /**
-     * Kustuta broneering (ainult admin, ilma 24h reeglita)
+     * Ruum ja ajad samade reeglitega nagu broneerimisel (ootejärjekorda lisamiseks)
      */
-    public void deleteBooking(Long bookingId, Long currentUserId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Booking not found"));
+    RoomCatalog.Entry validateRequest(BookingRequest request) {
+        RoomCatalog.Entry room = requireRoom(request.getRoomName());
+        validateTimes(room, request.getStartTime(), request.getEndTime());
+        return room;
+    }
 
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+    /**
+     * Ruum kataloogist nime järgi (tundmatu ruum = viga, mitte uus ruum)
+     */
+    private RoomCatalog.Entry requireRoom(String roomName) {
+        return roomCatalog.find(roomName).orElseThrow(() -> {
+            metrics.rejected("unknown_room", null);
+            return new BusinessException("Unknown room: " + roomName);
+        });
+    }
 
-        // If you don't import Role, use User.Role.ADMIN directly:
-        boolean isAdmin = currentUser.getRole() == User.Role.ADMIN;
+    /**
+     * Hõiva broneeringu ajad; juba hõivatud → tagasi lükatud.
+     * Kui ruumi aegade jaotus muutus teises instantsis, kontrollitakse aeg uue jaotuse järgi üle ja hõivatakse uuesti.
+     */
+    private RoomCatalog.Entry claimSlots(RoomCatalog.Entry room, Booking booking) {
+        try {
+            if (!metrics.timePhase("claim", () -> slotClaims.claim(room, booking))) {
+                metrics.rejected("conflict", room.name());
+                throw new BusinessException("This time slot is already booked");
+            }
+            return room;
+        } catch (BookingSlotClaims.StaleSlotGridException e) {
+            RoomCatalog.Entry current = reloadGrid(room);
+            validateTimes(current, booking.getStartTime(), booking.getEndTime());
+            return claimSlots(current, booking);
+        }
+    }
 
-        if (!isAdmin) {
-            throw new UnauthorizedException("Only admin can delete bookings");
+    /**
+     * Ruumi praegune aegade jaotus lukustava lugemisega: näeb viimast commit'itud versiooni ja jaotus ei muutu
+     * enne selle transaktsiooni lõppu. Ainult vananenud kataloogi korral, tavaline broneering ruumi rida ei lukusta.
+     * Kataloog laetakse pärast commit'i uuesti.
+     */
+    private RoomCatalog.Entry reloadGrid(RoomCatalog.Entry stale) {
+        RoomCatalog.Entry current = roomRepository.findForUpdateById(stale.id())
+                .map(RoomCatalog.Entry::of)
+                .orElseThrow(() -> new IllegalStateException("Room " + stale.id() + " is not in the database"));
+        if (current.slotVersion() == stale.slotVersion()) {
+            throw new IllegalStateException("Slot claim for room " + stale.id() + " failed with the current slot grid");
         }
+        eventPublisher.publishEvent(new RoomsChangedEvent(current.id()));
+        return current;
+    }
 
-        bookingRepository.delete(booking);
+    // Partii ruumid id järjekorras (teise partiiga samas järjekorras lukustamiseks)
+    private Map<Long, RoomCatalog.Entry> reloadGrids(Collection<RoomCatalog.Entry> stale) {
+        Map<Long, RoomCatalog.Entry> current = new LinkedHashMap<>();
+        boolean changed = false;
+        for (RoomCatalog.Entry room : stale.stream().sorted(Comparator.comparing(RoomCatalog.Entry::id)).toList()) {
+            RoomCatalog.Entry loaded = roomRepository.findForUpdateById(room.id())
+                    .map(RoomCatalog.Entry::of)
+                    .orElseThrow(() -> new IllegalStateException("Room " + room.id() + " is not in the database"));
+            changed |= loaded.slotVersion() != room.slotVersion();
+            current.put(loaded.id(), loaded);
+        }
+        if (!changed) {
+            throw new IllegalStateException("Slot claims failed with the current slot grids");
+        }
+        eventPublisher.publishEvent(new RoomsChangedEvent(null));
+        return current;
     }
 
-    // ==================== Helper Methods ====================
+    private static BusinessException batchRejected(List<BatchBookingResponse.RejectedSlot> rejected, int total) {
+        return new BusinessException(rejected.size() + " of " + total + " slots cannot be booked: "
+                + rejected.get(0).getReason() + " (" + rejected.get(0).getSlot().getStartTime() + ")");
+    }
+
+    /**
+     * REEGEL 1: Aeg peab olema tulevikus
+     * REEGEL 2: Lõpuaeg pärast algusaega
+     * Lisaks: ruumi lahtiolekuajal (ühe päeva sees) ja ruumi aja piiridel
+     */
+    private void validateTimes(RoomCatalog.Entry room, LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            metrics.rejected("missing_time", room.name());
+            throw new BusinessException("Start and end time are required");
+        }
+
+        if (startTime.isBefore(LocalDateTime.now())) {
+            metrics.rejected("past", room.name());
+            throw new BusinessException("Cannot book time in the past");
+        }
+
+        if (!endTime.isAfter(startTime)) {
+            metrics.rejected("invalid_range", room.name());
+            throw new BusinessException("End time must be after start time");
+        }
+
+        LocalDate day = startTime.toLocalDate();
+        if (startTime.isBefore(room.opensOn(day)) || endTime.isAfter(room.closesOn(day))) {
+            metrics.rejected("outside_hours", room.name());
+            throw new BusinessException(room.name() + " is open " + room.opensAt() + "-" + room.closesAt());
+        }
+
+        if (!room.isOnSlot(day, startTime) || !room.isOnSlot(day, endTime)) {
+            metrics.rejected("slot_granularity", room.name());
+            throw new BusinessException(room.name() + " is booked in " + room.slotMinutes()
+                    + "-minute slots from " + room.opensAt());
+        }
+    }
+
+    // Vaba aeg kärbitakse ruumi aja piiridele
+    private void addIfLongEnough(List<FreeSlot> free, RoomCatalog.Entry room, LocalDate day,
+                                 LocalDateTime start, LocalDateTime end, Duration minDuration) {
+        LocalDateTime slotStart = room.alignUp(day, start);
+        LocalDateTime slotEnd = room.alignDown(day, end);
+        if (Duration.between(slotStart, slotEnd).compareTo(minDuration) >= 0) {
+            free.add(new FreeSlot(room.name(), slotStart, slotEnd));
+        }
+    }
+
+    private Booking newBooking(User user, RoomCatalog.Entry room, BookingRequest request, LocalDateTime createdAt) {
+        return Booking.builder()
+                .user(user)
+                // Viide ilma päringuta; ruum on kataloogis, seega olemas
+                .room(roomRepository.getReferenceById(room.id()))
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .status(BookingStatus.ACTIVE)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private String roomName(Booking booking) {
+        return roomCatalog.get(booking.getRoom().getId()).name();
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Batch'i ajad: antud nimekiri + korduva reegli esinemised
+     */
+    private List<BookingRequest> expandSlots(BatchBookingRequest request) {
+        List<BookingRequest> slots = new ArrayList<>();
+        if (request.getSlots() != null) {
+            slots.addAll(request.getSlots());
+        }
+
+        RecurrenceRule rule = request.getRecurrence();
+        if (rule != null) {
+            if (rule.getStartTime() == null || rule.getEndTime() == null) {
+                throw new BusinessException("Recurrence needs start and end time");
+            }
+            if (rule.getIntervalDays() < 1 || rule.getCount() < 1 || rule.getCount() > MAX_BATCH_SIZE) {
+                throw new BusinessException("Recurrence needs a positive interval and 1-" + MAX_BATCH_SIZE + " occurrences");
+            }
+            for (int i = 0; i < rule.getCount(); i++) {
+                long days = (long) i * rule.getIntervalDays();
+                slots.add(new BookingRequest(rule.getRoomName(),
+                        rule.getStartTime().plusDays(days),
+                        rule.getEndTime().plusDays(days)));
+            }
+        }
+
+        return slots;
+    }
+
+    private BookingPage loadActivePage(Long roomId, LocalDateTime windowStart, LocalDateTime windowEnd,
+                                       String cursor, int pageSize) {
+
+        // Esimene lehekülg: kõik, mis algavad aknas (id > MIN_VALUE võtab ka täpselt 'from' ajal algavad)
+        BookingCursor after = cursor != null ? BookingCursor.decode(cursor) : null;
+        if (after == null || after.startTime().isBefore(windowStart)) {
+            after = new BookingCursor(windowStart, Long.MIN_VALUE);
+        }
+
+        // Üks rida rohkem, et teada, kas järgmine lehekülg on olemas
+        List<Booking> bookings = bookingRepository.findActivePage(
+                roomId, after.startTime(), after.id(), windowEnd, PageRequest.of(0, pageSize + 1));
+        metrics.resultSize("active_page", bookings.size());
+
+        String nextCursor = null;
+        if (bookings.size() > pageSize) {
+            bookings = bookings.subList(0, pageSize);
+            Booking last = bookings.get(pageSize - 1);
+            nextCursor = new BookingCursor(last.getStartTime(), last.getId()).encode();
+        }
+
+        return BookingPage.builder()
+                .items(bookings.stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
 
     /**
      * Konverteeri Booking Entity → BookingResponse DTO
+     * (package-private, et BookingServiceBenchmark saaks seda eraldi mõõta)
      */
-    private BookingResponse mapToResponse(Booking booking) {
+    BookingResponse mapToResponse(Booking booking) {
+        RoomCatalog.Entry room = roomCatalog.get(booking.getRoom().getId());
         return BookingResponse.builder()
                 .id(booking.getId())
                 .userId(booking.getUser().getId())
                 .username(booking.getUser().getUsername())
-                .roomName(booking.getRoomName())
+                .roomId(room.id())
+                .roomName(room.name())
                 .startTime(booking.getStartTime())
                 .endTime(booking.getEndTime())
                 .status(booking.getStatus().name())
                 .createdAt(booking.getCreatedAt())
                 .cancelledAt(booking.getCancelledAt())
+                .changeSeq(booking.getChangeSeq())
+                .build();
+    }
+
+    // Indeksi andmetest (ilma päringuta); kasutajanimi UserRoleCache'ist
+    private BookingResponse mapSlotToResponse(BookingIntervalIndex.Slot slot, BookingStatus status,
+                                              LocalDateTime cancelledAt, Long changeSeq) {
+        RoomCatalog.Entry room = roomCatalog.get(slot.roomId());
+        return BookingResponse.builder()
+                .id(slot.bookingId())
+                .userId(slot.userId())
+                .username(userRoleCache.username(slot.userId()).orElse(null))
+                .roomId(room.id())
+                .roomName(room.name())
+                .startTime(slot.startTime())
+                .endTime(slot.endTime())
+                .status(status.name())
+                .createdAt(slot.createdAt())
+                .cancelledAt(cancelledAt)
+                .changeSeq(changeSeq)
                 .build();
     }
-}
\ No newline at end of file
+
+    private BookingResponse mapArchivedToResponse(ArchivedBooking booking) {
+        RoomCatalog.Entry room = roomCatalog.get(booking.getRoom().getId());
+        return BookingResponse.builder()
+                .id(booking.getId())
+                .userId(booking.getUser().getId())
+                .username(booking.getUser().getUsername())
+                .roomId(room.id())
+                .roomName(room.name())
+                .startTime(booking.getStartTime())
+                .endTime(booking.getEndTime())
+                .status(booking.getStatus().name())
+                .createdAt(booking.getCreatedAt())
+                .cancelledAt(booking.getCancelledAt())
+                .build();
+    }
+
+    public record Window(LocalDateTime from, LocalDateTime to) {
+    }
+}
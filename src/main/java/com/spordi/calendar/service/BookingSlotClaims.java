@@ -0,0 +1,164 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.model.Booking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broneeringute ajad andmebaasis (booking_slot_claims): aktiivne broneering hõivab iga oma ruumi aja (room_id, slot_start).
+ * Primaarvõti lükkab teise hõivamise tagasi ka siis, kui broneeritakse mitmes instantsis korraga -
+ * RoomLocks ja BookingIntervalIndex näevad ainult oma instantsi broneeringuid.
+ * Hõivamine on broneeringuga samas transaktsioonis üks INSERT, ilma lisalukkude ja eelneva päringuta.
+ * Iga rida viitab ruumi aegade jaotuse versioonile (välisvõti rooms (id, slot_version)): kui jaotus vahepeal
+ * muutus, ebaõnnestub sama INSERT ja kutsuja saab StaleSlotGridException'i.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingSlotClaims {
+
+    private static final int MAX_ROWS_PER_INSERT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Hõiva broneeringute ajad; false, kui mõni aeg on juba hõivatud (kutsuja peab transaktsiooni tagasi keerama)
+     */
+    public boolean claim(RoomCatalog.Entry room, Booking booking) {
+        return claim(slotsOf(room, booking.getId(), booking.getStartTime(), booking.getEndTime()));
+    }
+
+    public boolean claim(Collection<Claim> claims) {
+        try {
+            insert(claims);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        } catch (DataIntegrityViolationException e) {
+            throw new StaleSlotGridException(e);
+        }
+    }
+
+    /**
+     * Hõiva mitme broneeringu ajad: tavaliselt üks INSERT, konflikti korral iga broneering eraldi.
+     * Tagastab broneeringud, mille ajad olid juba hõivatud; nende ridu ei jää.
+     */
+    public List<Booking> claimEach(Map<Long, RoomCatalog.Entry> rooms, List<Booking> bookings) {
+        List<Claim> all = new ArrayList<>();
+        bookings.forEach(booking -> all.addAll(slotsOf(rooms.get(booking.getRoom().getId()),
+                booking.getId(), booking.getStartTime(), booking.getEndTime())));
+        if (claim(all)) {
+            return List.of();
+        }
+
+        // Suur partii läheb mitme INSERT'iga: enne konflikti hõivatud read maha
+        releaseAll(bookings.stream().map(Booking::getId).toList());
+
+        List<Booking> conflicts = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (!claim(rooms.get(booking.getRoom().getId()), booking)) {
+                conflicts.add(booking);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Vabasta broneeringu ajad (tühistamine, kustutamine)
+     */
+    public int release(Long bookingId) {
+        return jdbcTemplate.update("DELETE FROM booking_slot_claims WHERE booking_id = ?", bookingId);
+    }
+
+    public int releaseAll(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM booking_slot_claims WHERE booking_id IN ("
+                        + String.join(", ", Collections.nCopies(bookingIds.size(), "?")) + ")",
+                bookingIds.toArray());
+    }
+
+    /**
+     * Ruumi kõik ajad maha - enne ruumi aegade jaotuse versiooni muutmist (välisvõti viitab vanale versioonile)
+     */
+    public int releaseRoom(Long roomId) {
+        return jdbcTemplate.update("DELETE FROM booking_slot_claims WHERE room_id = ?", roomId);
+    }
+
+    /**
+     * Möödunud ajad: uus broneering algab tulevikus ega saa nendega kokku minna
+     */
+    public int releaseBefore(LocalDateTime time) {
+        return jdbcTemplate.update("DELETE FROM booking_slot_claims WHERE slot_start < ?", time);
+    }
+
+    /**
+     * Ruumi aegade jaotus muutus (vanad ajad on releaseRoom'iga eemaldatud): hõiva ruumi aktiivsed broneeringud
+     * uute aegade järgi uuesti. false, kui kaks olemasolevat broneeringut jäävad uues jaotuses samale ajale.
+     */
+    public boolean reclaim(RoomCatalog.Entry room, List<Booking> activeBookings) {
+        List<Claim> claims = new ArrayList<>();
+        activeBookings.forEach(booking ->
+                claims.addAll(slotsOf(room, booking.getId(), booking.getStartTime(), booking.getEndTime())));
+        return claim(claims);
+    }
+
+    /**
+     * Ajad, mida broneering katab. Ruumi aja piiril olev broneering (nagu uued alati on) katab täpselt oma ajad;
+     * teistsuguse jaotuse järgi tehtud vana broneering ka osaliselt kaetud ajad, et kattuvus ei jääks märkamata.
+     */
+    public static List<Claim> slotsOf(RoomCatalog.Entry room, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        LocalDate day = start.toLocalDate();
+        List<Claim> claims = new ArrayList<>();
+        for (LocalDateTime slot = room.alignDown(day, start); slot.isBefore(end); slot = slot.plusMinutes(room.slotMinutes())) {
+            claims.add(new Claim(room.id(), room.slotVersion(), slot, bookingId));
+        }
+        return claims;
+    }
+
+    // ==================== Helper Methods ====================
+
+    // Üks mitme reaga INSERT (suurem hulk tükkidena); konflikt → DuplicateKeyException
+    private void insert(Collection<Claim> claims) {
+        List<Claim> all = List.copyOf(claims);
+        for (int from = 0; from < all.size(); from += MAX_ROWS_PER_INSERT) {
+            List<Claim> chunk = all.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, all.size()));
+
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO booking_slot_claims (room_id, slot_version, slot_start, booking_id) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 4);
+            for (Claim claim : chunk) {
+                sql.append(args.isEmpty() ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+                args.add(claim.roomId());
+                args.add(claim.slotVersion());
+                args.add(claim.slotStart());
+                args.add(claim.bookingId());
+            }
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    public record Claim(Long roomId, int slotVersion, LocalDateTime slotStart, Long bookingId) {
+    }
+
+    /**
+     * Ajad arvutati ruumi vana aegade jaotusega (muudeti teises instantsis): kataloog tuleb uuesti laadida
+     */
+    public static class StaleSlotGridException extends RuntimeException {
+
+        StaleSlotGridException(Throwable cause) {
+            super("Room slot grid changed while booking", cause);
+        }
+    }
+}
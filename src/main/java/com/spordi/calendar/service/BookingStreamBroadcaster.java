@@ -0,0 +1,143 @@
+package com.spordi.calendar.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spordi.calendar.event.BookingChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Saadab broneeringute muudatused (created/cancelled/deleted) SSE kaudu kõigile tellijatele.
+ * Igal tellijal on piiratud järjekord: kes ei jõua lugeda, see suletakse (klient ühendub uuesti).
+ * Saatmine käib virtuaalsetel lõimedel, ootel ühendused lõime ei hoia.
+ * Sündmused tulevad ainult selle instantsi muudatustest: mitme instantsi korral näeb tellija ainult osa
+ * muudatustest, täielik ja järjestatud allikas on muudatuste logi (/api/bookings/changes).
+ */
+@Slf4j
+@Component
+public class BookingStreamBroadcaster {
+
+    private final ObjectMapper objectMapper;
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("booking-stream-");
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    public BookingStreamBroadcaster(ObjectMapper objectMapper,
+                                    @Value("${booking.stream.queue-capacity:100}") int queueCapacity,
+                                    @Value("${booking.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.executor.setVirtualThreads(true);
+    }
+
+    /**
+     * Uus tellija; roomId == null tähendab kõiki ruume
+     */
+    public SseEmitter subscribe(Long roomId) {
+        return subscribe(new SseEmitter(timeoutMillis), roomId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long roomId) {
+        Subscriber subscriber = new Subscriber(emitter, roomId);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        subscriber.offer(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        // Serialiseeri üks kord, mitte iga tellija jaoks
+        Set<DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                    .name(event.type().name().toLowerCase(Locale.ROOT))
+                    .data(objectMapper.writeValueAsString(event.booking()))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize booking delta {}", event.booking().getId(), e);
+            return;
+        }
+
+        Long roomId = event.booking().getRoomId();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.roomId == null || Objects.equals(subscriber.roomId, roomId)) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    // Hoiab ühendused proksides elus ja leiab suletud ühendused
+    @Scheduled(fixedRateString = "${booking.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        subscribers.forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long roomId;
+        private final Queue<Set<DataWithMediaType>> pending = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Long roomId) {
+            this.emitter = emitter;
+            this.roomId = roomId;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (!pending.offer(frame)) {
+                // Aeglane klient - ära puhverda lõpmatult
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> frame;
+                while ((frame = pending.poll()) != null) {
+                    try {
+                        emitter.send(frame);
+                    } catch (IOException | IllegalStateException e) {
+                        // Ühendus on kadunud; 'draining' jääb true, sest enam ei saadeta
+                        subscribers.remove(this);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
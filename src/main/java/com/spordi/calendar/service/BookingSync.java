@@ -0,0 +1,81 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingChanges;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.model.BookingTombstone;
+import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.BookingTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta-sünkroon: ainult broneeringud, mis on muutunud pärast kliendi tokenit, ja kustutatud broneeringute id-d.
+ * Token on muudatuse järjenumber (changeSeq); 0 = kõik olemasolevad broneeringud.
+ * Arhiveerimine muudatus ei ole - arhiveeritud broneering jääb kliendile alles, kuni klient selle ise unustab.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BookingSync {
+
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final BookingTombstoneRepository tombstoneRepository;
+    private final BookingChangeSequence changeSequence;
+    private final BookingService bookingService;
+
+    /**
+     * Muudatused pärast tokenit since; roomId / userId == null → kõik
+     */
+    public BookingChanges changes(long since, Long roomId, Long userId, Integer limit) {
+        if (since < 0) {
+            throw new BusinessException("'since' must not be negative");
+        }
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new BusinessException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        // Ainult lõpetatud muudatused: suuremad numbrid võivad veel commit'i oodata
+        long upTo = changeSequence.stableToken();
+        if (since >= upTo) {
+            return new BookingChanges(List.of(), List.of(), since, false);
+        }
+
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Booking> changed = bookingRepository.findChangedSince(since, upTo, roomId, userId, page);
+        List<BookingTombstone> deleted = tombstoneRepository.findChangedSince(since, upTo, roomId, userId, page);
+
+        // Kaks järjestatud nimekirja kokku changeSeq järgi, kuni limiidini
+        List<BookingResponse> changedPage = new ArrayList<>();
+        List<Long> deletedPage = new ArrayList<>();
+        int c = 0;
+        int d = 0;
+        long last = since;
+        while (changedPage.size() + deletedPage.size() < size && (c < changed.size() || d < deleted.size())) {
+            boolean takeChanged = d == deleted.size()
+                    || (c < changed.size() && changed.get(c).getChangeSeq() < deleted.get(d).getChangeSeq());
+            if (takeChanged) {
+                Booking booking = changed.get(c++);
+                changedPage.add(bookingService.mapToResponse(booking));
+                last = booking.getChangeSeq();
+            } else {
+                BookingTombstone tombstone = deleted.get(d++);
+                deletedPage.add(tombstone.getBookingId());
+                last = tombstone.getChangeSeq();
+            }
+        }
+
+        boolean hasMore = c < changed.size() || d < deleted.size();
+        return new BookingChanges(changedPage, deletedPage, hasMore ? last : upTo, hasMore);
+    }
+}
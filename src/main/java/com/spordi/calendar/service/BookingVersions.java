@@ -0,0 +1,61 @@
+package com.spordi.calendar.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broneeringute nimekirjade versioonid (kogu kalender, iga ruum ja iga kasutaja eraldi) muudatuste järjenumbritest
+ * (changeSeq) andmebaasis, seega kõigis instantsides samad. Nendest tehakse ETag, et muutmata nimekirja ei peaks
+ * uuesti pärima ega serialiseerima, ja need on osa BookingReadCache'i võtmest: enne laadimist loetud versioon →
+ * andmed on vähemalt nii värsked.
+ * Ruumi ja kasutaja versioon on suurim changeSeq broneeringute ja kustutatud broneeringute (tombstone) seas;
+ * kogu kalendri oma on loenduri väärtus (BookingChangeSequence.stableToken).
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingVersions {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingChangeSequence changeSequence;
+
+    /**
+     * ETag ruumi nimekirjale, või kogu kalendrile kui ruumi pole antud
+     */
+    public String etag(Long roomId) {
+        return roomId == null ? "g" + global() : "r" + room(roomId);
+    }
+
+    /**
+     * ETag kasutaja nimekirjale
+     */
+    public String userEtag(Long userId) {
+        return "u" + user(userId);
+    }
+
+    public long global() {
+        return changeSequence.stableToken();
+    }
+
+    // Ruumi versioon; null → kogu kalender
+    public long room(Long roomId) {
+        if (roomId == null) {
+            return global();
+        }
+        return latest("room_id", roomId);
+    }
+
+    public long user(Long userId) {
+        return latest("user_id", userId);
+    }
+
+    // ==================== Helper Methods ====================
+
+    // column on room_id või user_id; mõlemas tabelis indeks (column, change_seq)
+    private long latest(String column, Long id) {
+        return jdbcTemplate.queryForObject("SELECT GREATEST(" +
+                "COALESCE((SELECT MAX(change_seq) FROM bookings WHERE " + column + " = ?), 0), " +
+                "COALESCE((SELECT MAX(change_seq) FROM booking_tombstones WHERE " + column + " = ?), 0))",
+                Long.class, id, id);
+    }
+}
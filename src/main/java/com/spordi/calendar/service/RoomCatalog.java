@@ -0,0 +1,170 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.event.RoomsChangedEvent;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.Room;
+import com.spordi.calendar.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ruumide kataloog mälus: muutumatu hetktõmmis, mida loetakse ilma lukkudeta ja päringuteta.
+ * Ruume muudetakse harva, seega muudatuse järel laetakse kogu tõmmis uuesti ja vahetatakse välja.
+ * Teise instantsi muudatused jõuavad siia puuduva ruumi otsimisel või hiljemalt booking.room-catalog.ttl järel;
+ * vananenud aegade jaotuse avastab broneerimisel aegade hõivamine (BookingSlotClaims, slotVersion).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomCatalog {
+
+    private final RoomRepository roomRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Ruum nime järgi; tundmatu nime korral laetakse kataloog uuesti (ruum võis tekkida teises instantsis)
+     */
+    public Optional<Entry> find(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot().byName().get(name))
+                .or(() -> Optional.ofNullable(refresh().byName().get(name)));
+    }
+
+    /**
+     * Ruum id järgi; tühi, kui sellist ruumi pole (ka pärast kataloogi uuesti laadimist)
+     */
+    public Optional<Entry> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id))
+                .or(() -> Optional.ofNullable(refresh().byId().get(id)));
+    }
+
+    /**
+     * Ruum id järgi. Ruume ei kustutata, seega puuduv id tähendab, et tõmmis on vanem kui ruum.
+     */
+    public Entry get(Long id) {
+        Entry room = snapshot().byId().get(id);
+        if (room == null) {
+            room = refresh().byId().get(id);
+        }
+        if (room == null) {
+            throw new IllegalStateException("Room " + id + " is not in the catalog");
+        }
+        return room;
+    }
+
+    /**
+     * Ruumi nimi → id päringu filtri jaoks; null → null (kõik ruumid)
+     */
+    public Long resolveId(String name) {
+        if (name == null) {
+            return null;
+        }
+        return find(name)
+                .map(Entry::id)
+                .orElseThrow(() -> new BusinessException("Unknown room: " + name));
+    }
+
+    public List<Entry> all() {
+        return snapshot().all();
+    }
+
+    /**
+     * Lae kataloog andmebaasist uuesti
+     */
+    public synchronized Snapshot refresh() {
+        List<Entry> rooms = roomRepository.findAll().stream()
+                .map(Entry::of)
+                .sorted(Comparator.comparing(Entry::name))
+                .toList();
+
+        Snapshot loaded = new Snapshot(
+                rooms.stream().collect(Collectors.toUnmodifiableMap(Entry::id, Function.identity())),
+                rooms.stream().collect(Collectors.toUnmodifiableMap(Entry::name, Function.identity())),
+                rooms);
+        snapshot = loaded;
+
+        log.debug("Room catalog loaded with {} rooms", rooms.size());
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomsChanged(RoomsChangedEvent event) {
+        refresh();
+    }
+
+    // Teiste instantside muudatused taustal, mitte päringu ajal
+    @Scheduled(fixedDelayString = "${booking.room-catalog.ttl:30s}", initialDelayString = "${booking.room-catalog.ttl:30s}")
+    public void refreshPeriodically() {
+        refresh();
+    }
+
+    // ==================== Helper Methods ====================
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    public record Snapshot(Map<Long, Entry> byId, Map<String, Entry> byName, List<Entry> all) {
+    }
+
+    /**
+     * Ruumi andmed, mida broneerimine vajab. closesAt 00:00 = avatud päeva lõpuni.
+     */
+    public record Entry(Long id, String name, int capacity, LocalTime opensAt, LocalTime closesAt, int slotMinutes,
+                        int slotVersion) {
+
+        static Entry of(Room room) {
+            return new Entry(room.getId(), room.getName(), room.getCapacity(),
+                    room.getOpensAt(), room.getClosesAt(), room.getSlotMinutes(), room.getSlotVersion());
+        }
+
+        public LocalDateTime opensOn(LocalDate day) {
+            return day.atTime(opensAt);
+        }
+
+        public LocalDateTime closesOn(LocalDate day) {
+            return closesAt.equals(LocalTime.MIDNIGHT) ? day.plusDays(1).atStartOfDay() : day.atTime(closesAt);
+        }
+
+        /**
+         * Kas aeg on selle päeva aja piiril (avamisajast slotMinutes kaupa)?
+         * Päev on antud eraldi, sest 00:00 sulgemisaeg on juba järgmise päeva kuupäevaga.
+         */
+        public boolean isOnSlot(LocalDate day, LocalDateTime time) {
+            return alignDown(day, time).equals(time);
+        }
+
+        // Lähim aja piir enne / pärast antud aega
+        public LocalDateTime alignDown(LocalDate day, LocalDateTime time) {
+            LocalDateTime opens = opensOn(day);
+            return opens.plusSeconds(Math.floorDiv(Duration.between(opens, time).toSeconds(), slotSeconds()) * slotSeconds());
+        }
+
+        public LocalDateTime alignUp(LocalDate day, LocalDateTime time) {
+            LocalDateTime down = alignDown(day, time);
+            return down.equals(time) ? down : down.plusSeconds(slotSeconds());
+        }
+
+        private long slotSeconds() {
+            return slotMinutes * 60L;
+        }
+    }
+}
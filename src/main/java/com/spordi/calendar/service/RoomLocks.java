@@ -0,0 +1,95 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ruumipõhised lukud (striped): sama ruumi broneeringud luuakse järjest,
+ * erinevad ruumid paralleelselt. Lukk vabastatakse alles pärast commit'i,
+ * et järgmine päring näeks juba salvestatud broneeringut.
+ */
+@Component
+public class RoomLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public RoomLocks(@Value("${booking.room-locks.stripes:64}") int stripeCount,
+                     @Value("${booking.room-locks.timeout-ms:5000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Lukusta ruum kuni käimasoleva transaktsiooni lõpuni
+     */
+    public void lockUntilCompletion(Long roomId) {
+        lockAllUntilCompletion(Collections.singleton(roomId));
+    }
+
+    /**
+     * Lukusta mitu ruumi korraga. Lukud võetakse alati kasvavas järjekorras,
+     * et kaks paralleelset mitme ruumi päringut ei jääks teineteist ootama.
+     */
+    public void lockAllUntilCompletion(Collection<Long> roomIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Room lock requires an active transaction");
+        }
+
+        int[] indexes = roomIds.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                acquire(lock);
+                held.add(lock);
+            }
+        } catch (RuntimeException e) {
+            held.forEach(ReentrantLock::unlock);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                held.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    // ==================== Helper Methods ====================
+
+    private int stripeIndex(Long roomId) {
+        return Math.floorMod(Objects.hashCode(roomId), stripes.length);
+    }
+
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new BusinessException("Room is busy, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Booking was interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.RoomRequest;
+import com.spordi.calendar.dto.RoomResponse;
+import com.spordi.calendar.event.RoomsChangedEvent;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.exception.NotFoundException;
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.model.Room;
+import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RoomService {
+
+    private static final int MAX_SLOT_MINUTES = 24 * 60;
+
+    private final RoomRepository roomRepository;
+    private final UserRoleCache userRoleCache;
+    private final RoomCatalog roomCatalog;
+    private final BookingRepository bookingRepository;
+    private final RoomLocks roomLocks;
+    private final BookingSlotClaims slotClaims;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Kõik ruumid (kataloogist, ilma päringuta)
+     */
+    @Transactional(readOnly = true)
+    public List<RoomResponse> getRooms() {
+        return roomCatalog.all().stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lisa ruum (ainult admin)
+     */
+    public RoomResponse createRoom(RoomRequest request, Long userId) {
+        requireAdmin(userId);
+        validate(request);
+
+        if (roomRepository.existsByName(request.getName().trim())) {
+            throw new BusinessException("Room already exists: " + request.getName());
+        }
+
+        Room room = new Room();
+        apply(room, request);
+        Room saved = roomRepository.save(room);
+
+        eventPublisher.publishEvent(new RoomsChangedEvent(saved.getId()));
+        return mapToResponse(RoomCatalog.Entry.of(saved));
+    }
+
+    /**
+     * Muuda ruumi (ainult admin). Olemasolevaid broneeringuid uued lahtiolekuajad ei mõjuta.
+     * Kui lahtiolekuajad või aja pikkus muutuvad, saab ruum uue aegade jaotuse versiooni ja broneeringute ajad
+     * hõivatakse uue jaotuse järgi uuesti; vana versiooniga hõivamine (ka teises instantsis) ebaõnnestub.
+     */
+    public RoomResponse updateRoom(Long roomId, RoomRequest request, Long userId) {
+        requireAdmin(userId);
+        validate(request);
+
+        // Selle instantsi lukk, siis ruumi rida: teiste instantside aegade hõivamine ootab välisvõtme kontrollis
+        roomLocks.lockUntilCompletion(roomId);
+        Room room = roomRepository.findForUpdateById(roomId)
+                .orElseThrow(() -> new NotFoundException("Room not found"));
+        if (roomRepository.existsByNameAndIdNot(request.getName().trim(), roomId)) {
+            throw new BusinessException("Room already exists: " + request.getName());
+        }
+
+        RoomCatalog.Entry before = RoomCatalog.Entry.of(room);
+        apply(room, request);
+        boolean gridChanged = !before.opensAt().equals(room.getOpensAt())
+                || !before.closesAt().equals(room.getClosesAt())
+                || before.slotMinutes() != room.getSlotMinutes();
+        if (gridChanged) {
+            // Vanad ajad enne versiooni muutmist: välisvõti viitab vanale versioonile
+            slotClaims.releaseRoom(roomId);
+            room.setSlotVersion(room.getSlotVersion() + 1);
+        }
+        Room saved = roomRepository.saveAndFlush(room);
+        RoomCatalog.Entry after = RoomCatalog.Entry.of(saved);
+
+        if (gridChanged) {
+            reclaimSlots(after);
+        }
+
+        eventPublisher.publishEvent(new RoomsChangedEvent(saved.getId()));
+        return mapToResponse(after);
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void reclaimSlots(RoomCatalog.Entry room) {
+        List<Booking> active = bookingRepository.findByRoomIdAndStatusAndEndTimeAfter(
+                room.id(), BookingStatus.ACTIVE, LocalDateTime.now());
+        if (!slotClaims.reclaim(room, active)) {
+            throw new BusinessException("Existing bookings do not fit " + room.slotMinutes()
+                    + "-minute slots from " + room.opensAt());
+        }
+    }
+
+    private void requireAdmin(Long userId) {
+        userRoleCache.requireAdmin(userId, "Only admin can manage rooms");
+    }
+
+    /**
+     * Nimi olemas, mahutavus positiivne, avamine enne sulgemist (sulgemine 00:00 = päeva lõpus),
+     * aja pikkus jagab lahtioleku aja täpselt
+     */
+    private void validate(RoomRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new BusinessException("Room name is required");
+        }
+        if (request.getCapacity() < 1) {
+            throw new BusinessException("Capacity must be positive");
+        }
+        if (request.getOpensAt() == null || request.getClosesAt() == null) {
+            throw new BusinessException("Opening and closing time are required");
+        }
+        if (request.getSlotMinutes() < 1 || request.getSlotMinutes() > MAX_SLOT_MINUTES) {
+            throw new BusinessException("Slot length must be 1-" + MAX_SLOT_MINUTES + " minutes");
+        }
+
+        int opens = request.getOpensAt().toSecondOfDay();
+        int closes = request.getClosesAt().equals(LocalTime.MIDNIGHT)
+                ? LocalTime.MAX.toSecondOfDay() + 1
+                : request.getClosesAt().toSecondOfDay();
+        if (closes <= opens) {
+            throw new BusinessException("Room must open before it closes");
+        }
+        if ((closes - opens) % (request.getSlotMinutes() * 60) != 0) {
+            throw new BusinessException("Opening hours must be a whole number of " + request.getSlotMinutes() + "-minute slots");
+        }
+    }
+
+    private void apply(Room room, RoomRequest request) {
+        room.setName(request.getName().trim());
+        room.setCapacity(request.getCapacity());
+        room.setOpensAt(request.getOpensAt());
+        room.setClosesAt(request.getClosesAt());
+        room.setSlotMinutes(request.getSlotMinutes());
+    }
+
+    private RoomResponse mapToResponse(RoomCatalog.Entry room) {
+        return RoomResponse.builder()
+                .id(room.id())
+                .name(room.name())
+                .capacity(room.capacity())
+                .opensAt(room.opensAt())
+                .closesAt(room.closesAt())
+                .slotMinutes(room.slotMinutes())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.spordi.calendar.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Ajastatud tööde lukk andmebaasis (tabel scheduled_locks), et sama töö ei jookseks mitmes instantsis korraga.
+ * Lukk kehtib kuni locked_until; kokku jooksnud instantsi lukk aegub ise.
+ */
+@Component
+public class ScheduledJobLock {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Iga kontekst eraldi, ka kaks instantsi ühes JVM-is
+    private final String owner = UUID.randomUUID().toString();
+
+    public ScheduledJobLock(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Võta lukk kuni lockAtMost; false, kui see on teise instantsi käes
+     */
+    public boolean tryLock(String name, Duration lockAtMost) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = Objects.requireNonNull(transactionTemplate.execute(status -> jdbcTemplate.update(
+                "UPDATE scheduled_locks SET locked_until = ?, locked_by = ? WHERE name = ? AND locked_until <= ?",
+                now.plus(lockAtMost), owner, name, now)));
+        return updated == 1;
+    }
+
+    /**
+     * Vabasta lukk, kui see on veel selle instantsi käes
+     */
+    public void unlock(String name) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE scheduled_locks SET locked_until = ? WHERE name = ? AND locked_by = ?",
+                LocalDateTime.now(), name, owner));
+    }
+}
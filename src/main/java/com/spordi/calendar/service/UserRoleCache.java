@@ -0,0 +1,70 @@
+package com.spordi.calendar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spordi.calendar.exception.NotFoundException;
+import com.spordi.calendar.exception.UnauthorizedException;
+import com.spordi.calendar.model.User;
+import com.spordi.calendar.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Kasutaja roll (ja nimi) mälus, et iga päring (piirang, admini kontroll, sündmuse andmed) ei peaks users tabelit lugema.
+ * Rolle muudetakse harva; muudatus jõuab kohale hiljemalt ttl pärast.
+ */
+@Component
+public class UserRoleCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Optional<Profile>> profiles;
+
+    public UserRoleCache(UserRepository userRepository,
+                         @Value("${booking.user-roles.max-size:100000}") long maxSize,
+                         @Value("${booking.user-roles.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Kasutaja roll; tühi, kui kasutajat pole
+     */
+    public Optional<User.Role> role(Long userId) {
+        return profile(userId).map(Profile::role);
+    }
+
+    /**
+     * Kasutajanimi; tühi, kui kasutajat pole
+     */
+    public Optional<String> username(Long userId) {
+        return profile(userId).map(Profile::username);
+    }
+
+    public boolean isAdmin(Long userId) {
+        return role(userId).filter(role -> role == User.Role.ADMIN).isPresent();
+    }
+
+    /**
+     * Admin või viga: kasutajat pole → 404, pole admin → 403
+     */
+    public void requireAdmin(Long userId, String message) {
+        User.Role role = role(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        if (role != User.Role.ADMIN) {
+            throw new UnauthorizedException(message);
+        }
+    }
+
+    private Optional<Profile> profile(Long userId) {
+        return profiles.get(userId, id -> userRepository.findById(id)
+                .map(user -> new Profile(user.getUsername(), user.getRole())));
+    }
+
+    private record Profile(String username, User.Role role) {
+    }
+}
@@ -0,0 +1,257 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.event.BookingChangedEvent;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.model.WaitlistEntry;
+import com.spordi.calendar.repository.WaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Vabanenud ajad → ootejärjekorra kirjed broneeringuteks, taustalõimes (tühistaja päring ainult lisab aja järjekorda).
+ * Tühistamiste purske korral võetakse järjekorrast kõik korraga ja kattuvad / külgnevad ajad liidetakse ruumi kaupa,
+ * nii et iga ruumi vaba vahemiku kohta tehakse üks päring.
+ * Iga ootaja muudetakse broneeringuks oma transaktsioonis (createBooking samade reeglite ja lukuga), järjekorras createdAt, id.
+ * Kui järjekord on täis või rakendus taaskäivitub, leiab perioodiline läbivaatus (sweep) ootajad hiljem üles.
+ */
+@Slf4j
+@Component
+public class WaitlistPromoter implements SmartLifecycle {
+
+    private final WaitlistRepository waitlistRepository;
+    private final BookingService bookingService;
+    private final BookingIntervalIndex intervalIndex;
+    private final RoomCatalog roomCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Freed> queue;
+    private final Duration batchDelay;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public WaitlistPromoter(WaitlistRepository waitlistRepository,
+                            BookingService bookingService,
+                            BookingIntervalIndex intervalIndex,
+                            RoomCatalog roomCatalog,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${booking.waitlist.queue-capacity:10000}") int queueCapacity,
+                            @Value("${booking.waitlist.batch-delay:200ms}") Duration batchDelay) {
+        this.waitlistRepository = waitlistRepository;
+        this.bookingService = bookingService;
+        this.intervalIndex = intervalIndex;
+        this.roomCatalog = roomCatalog;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchDelay = batchDelay;
+        this.meterRegistry = meterRegistry;
+
+        // Oma transaktsioon iga ootaja jaoks: ühe ebaõnnestumine ei rulli teisi tagasi
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("booking.waitlist.queue", queue, Collection::size)
+                .description("Freed intervals waiting for waitlist promotion")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pärast tühistamise / kustutamise commit'i: aeg on vaba → järjekorda (tühistaja ei oota edutamist)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingResponse booking = event.booking();
+        boolean freed = switch (event.type()) {
+            case CREATED -> false;
+            case CANCELLED -> true;
+            // Tühistatud broneeringu kustutamine aega ei vabasta
+            case DELETED -> BookingStatus.ACTIVE.name().equals(booking.getStatus());
+        };
+
+        if (freed && booking.getEndTime().isAfter(LocalDateTime.now())) {
+            offer(new Freed(booking.getRoomId(), booking.getStartTime(), booking.getEndTime()));
+        }
+    }
+
+    /**
+     * Perioodiline läbivaatus: alanud ootajad aeguvad, ülejäänud ruumide vahemikud kontrollitakse uuesti
+     * (järjekorrast välja jäänud või enne restarti vabanenud ajad)
+     */
+    @Scheduled(fixedDelayString = "${booking.waitlist.sweep-interval-ms:300000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer expired = transactionTemplate.execute(status -> waitlistRepository.expireStarted(
+                now, WaitlistEntry.Status.WAITING, WaitlistEntry.Status.EXPIRED));
+        if (expired != null && expired > 0) {
+            log.info("Expired {} waitlist entries", expired);
+        }
+
+        List<Object[]> spans = transactionTemplate.execute(status -> waitlistRepository.findWaitingSpans(now));
+        if (spans != null) {
+            spans.forEach(span -> offer(new Freed((Long) span[0], (LocalDateTime) span[1], (LocalDateTime) span[2])));
+        }
+    }
+
+    /**
+     * Töötle vabanenud ajad kohe (kutsuja lõimes)
+     */
+    public void promoteAll(List<Freed> freed) {
+        freed.stream()
+                .collect(Collectors.groupingBy(Freed::roomId))
+                .forEach((roomId, intervals) -> merge(intervals).forEach(this::promoteInterval));
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("booking-waitlist-promoter").daemon().start(this::promoteLoop);
+    }
+
+    @Override
+    public void stop() {
+        // Ilma interrupt'ita: pooleli transaktsioon lõpetatakse (katkestatud lõim võib H2 faili sulgeda)
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void offer(Freed freed) {
+        if (!queue.offer(freed)) {
+            // Ei kao: sweep leiab ootajad hiljem
+            count("queue_full");
+        }
+    }
+
+    // Esimene aeg → oota batchDelay, et purske ülejäänud tühistamised jõuaksid samasse partiisse
+    private void promoteLoop() {
+        while (running) {
+            try {
+                Freed first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                Thread.sleep(batchDelay.toMillis());
+
+                List<Freed> batch = new ArrayList<>();
+                batch.add(first);
+                queue.drainTo(batch);
+
+                promoteAll(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Waitlist promotion failed", e);
+            }
+        }
+    }
+
+    // Ühe ruumi kattuvad või külgnevad vahemikud kokku
+    private static List<Freed> merge(List<Freed> intervals) {
+        List<Freed> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparing(Freed::startTime));
+
+        List<Freed> merged = new ArrayList<>();
+        Freed current = sorted.get(0);
+        for (Freed next : sorted.subList(1, sorted.size())) {
+            if (next.startTime().isAfter(current.endTime())) {
+                merged.add(current);
+                current = next;
+            } else if (next.endTime().isAfter(current.endTime())) {
+                current = new Freed(current.roomId(), current.startTime(), next.endTime());
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    private void promoteInterval(Freed freed) {
+        List<WaitlistEntry> candidates = transactionTemplate.execute(status -> waitlistRepository.findWaitingOverlapping(
+                freed.roomId(), freed.startTime(), freed.endTime(), LocalDateTime.now()));
+        if (candidates == null) {
+            return;
+        }
+
+        for (WaitlistEntry entry : candidates) {
+            // Mälus kontroll enne transaktsiooni: kui aeg on ikka kinni (nt eelmine ootaja sai selle), jäta vahele
+            if (intervalIndex.hasOverlap(freed.roomId(), entry.getStartTime(), entry.getEndTime())) {
+                continue;
+            }
+            promoteEntry(entry);
+        }
+    }
+
+    private void promoteEntry(WaitlistEntry entry) {
+        String roomName = roomCatalog.get(entry.getRoom().getId()).name();
+        Long userId = entry.getUser().getId();
+        try {
+            String result = transactionTemplate.execute(status -> {
+                BookingResponse booking = bookingService.createBooking(
+                        new BookingRequest(roomName, entry.getStartTime(), entry.getEndTime()), userId);
+
+                if (waitlistRepository.markPromoted(entry.getId(), booking.getId(), LocalDateTime.now(),
+                        WaitlistEntry.Status.WAITING, WaitlistEntry.Status.PROMOTED) == 0) {
+                    // Kasutaja lahkus vahepeal järjekorrast - broneeringut ei tehta
+                    status.setRollbackOnly();
+                    return "left";
+                }
+                return "promoted";
+            });
+            count(result);
+        } catch (BusinessException e) {
+            // Aeg sai vahepeal kinni (või ei vasta enam reeglitele) - jääb ootama
+            count("conflict");
+        } catch (RuntimeException e) {
+            log.warn("Could not promote waitlist entry {}", entry.getId(), e);
+            count("failed");
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("booking.waitlist.promotions")
+                .description("Waitlist promotion attempts by outcome")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public record Freed(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+}
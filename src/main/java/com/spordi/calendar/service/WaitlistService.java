@@ -0,0 +1,127 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.WaitlistEntryResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.exception.NotFoundException;
+import com.spordi.calendar.exception.UnauthorizedException;
+import com.spordi.calendar.model.User;
+import com.spordi.calendar.model.WaitlistEntry;
+import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import com.spordi.calendar.repository.WaitlistRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Ootejärjekord juba broneeritud aegadele. Kasutaja ei pea enam sama aega uuesti ja uuesti proovima:
+ * kui aeg vabaneb, teeb WaitlistPromoter järjekorras esimesele broneeringu.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class WaitlistService {
+
+    private static final int MAX_WAITING_PER_USER = 20;
+
+    private final WaitlistRepository waitlistRepository;
+    private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final RoomCatalog roomCatalog;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Lisa kasutaja aja ootejärjekorda
+     * Reeglid:
+     * 1. Samad aja reeglid nagu broneerimisel
+     * 2. Aeg peab olema kinni (vaba aega broneeri otse)
+     * 3. Sama aega ei saa oodata kaks korda
+     */
+    public WaitlistEntryResponse join(BookingRequest request, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        // REEGEL 1
+        RoomCatalog.Entry room = bookingService.validateRequest(request);
+
+        // REEGEL 2: andmebaasist - teise instantsi broneeringud pole selle instantsi indeksis
+        if (!bookingRepository.existsOverlappingBooking(room.id(), request.getStartTime(), request.getEndTime())) {
+            throw new BusinessException("This time slot is free, book it directly");
+        }
+
+        // REEGEL 3
+        if (waitlistRepository.existsByUserIdAndRoomIdAndStartTimeAndEndTimeAndStatus(userId, room.id(),
+                request.getStartTime(), request.getEndTime(), WaitlistEntry.Status.WAITING)) {
+            throw new BusinessException("You are already waiting for this time slot");
+        }
+        if (waitlistRepository.countByUserIdAndStatus(userId, WaitlistEntry.Status.WAITING) >= MAX_WAITING_PER_USER) {
+            throw new BusinessException("Cannot wait for more than " + MAX_WAITING_PER_USER + " slots at once");
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(WaitlistEntry.builder()
+                .user(user)
+                .room(roomRepository.getReferenceById(room.id()))
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .status(WaitlistEntry.Status.WAITING)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        return mapToResponse(entry);
+    }
+
+    /**
+     * Kasutaja ootel olevad kirjed
+     */
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> getWaiting(Long userId) {
+        return waitlistRepository.findByUserIdAndStatusOrderByStartTimeAsc(userId, WaitlistEntry.Status.WAITING)
+                .stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lahku järjekorrast (ainult oma kirje, mis on veel ootel)
+     */
+    public void leave(Long entryId, Long userId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new NotFoundException("Waitlist entry not found"));
+
+        if (!entry.getUser().getId().equals(userId)) {
+            throw new UnauthorizedException("You can only leave your own waitlist entries");
+        }
+        if (entry.getStatus() != WaitlistEntry.Status.WAITING) {
+            throw new BusinessException("Waitlist entry is no longer waiting: " + entry.getStatus());
+        }
+
+        entry.setStatus(WaitlistEntry.Status.CANCELLED);
+        entry.setClosedAt(LocalDateTime.now());
+        waitlistRepository.save(entry);
+    }
+
+    // ==================== Helper Methods ====================
+
+    private WaitlistEntryResponse mapToResponse(WaitlistEntry entry) {
+        RoomCatalog.Entry room = roomCatalog.get(entry.getRoom().getId());
+        return WaitlistEntryResponse.builder()
+                .id(entry.getId())
+                .userId(entry.getUser().getId())
+                .roomId(room.id())
+                .roomName(room.name())
+                .startTime(entry.getStartTime())
+                .endTime(entry.getEndTime())
+                .status(entry.getStatus().name())
+                .createdAt(entry.getCreatedAt())
+                .closedAt(entry.getClosedAt())
+                .bookingId(entry.getBookingId())
+                .build();
+    }
+}
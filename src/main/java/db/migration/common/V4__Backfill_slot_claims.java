@@ -0,0 +1,107 @@
+package db.migration.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Olemasolevate aktiivsete (veel lõppemata) broneeringute ajad booking_slot_claims tabelisse.
+ * Aegade arvutus on siin külmutatud koopia tolleaegsest BookingSlotClaims.slotsOf / RoomCatalog.Entry.alignDown
+ * loogikast: migratsioon peab ka hiljem andma sama tulemuse, ükskõik kuidas rakenduse kood muutub.
+ * Flyway käivitab migratsiooni üks kord ja ühes instantsis, enne kui ükski broneering tuleb.
+ */
+@Slf4j
+public class V4__Backfill_slot_claims extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        Map<Long, Room> rooms = loadRooms(connection);
+
+        // Hõivatud aeg → broneering, kellele see anti
+        Map<Slot, Long> claimed = new HashMap<>();
+        int skipped = 0;
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, room_id, start_time, end_time FROM bookings WHERE status = 'ACTIVE' AND end_time > ? ORDER BY id");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO booking_slot_claims (room_id, slot_start, booking_id) VALUES (?, ?, ?)")) {
+            select.setObject(1, LocalDateTime.now());
+
+            int batched = 0;
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    long bookingId = rs.getLong("id");
+                    long roomId = rs.getLong("room_id");
+                    Room room = rooms.get(roomId);
+                    LocalDateTime start = rs.getObject("start_time", LocalDateTime.class);
+                    LocalDateTime end = rs.getObject("end_time", LocalDateTime.class);
+
+                    for (LocalDateTime slotStart = room.alignDown(start); slotStart.isBefore(end);
+                         slotStart = slotStart.plusMinutes(room.slotMinutes())) {
+
+                        // Vanad kattuvad broneeringud (enne ühist kontrolli tehtud): esimene saab aja
+                        Long holder = claimed.putIfAbsent(new Slot(roomId, slotStart), bookingId);
+                        if (holder != null) {
+                            log.warn("Booking {} overlaps booking {} in room {} at {}, the slot stays with booking {}",
+                                    bookingId, holder, roomId, slotStart, holder);
+                            skipped++;
+                            continue;
+                        }
+                        insert.setLong(1, roomId);
+                        insert.setObject(2, slotStart);
+                        insert.setLong(3, bookingId);
+                        insert.addBatch();
+
+                        if (++batched % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+
+        log.info("Claimed {} slots of active bookings", claimed.size());
+        if (skipped > 0) {
+            log.warn("{} slots were already claimed by an earlier overlapping booking", skipped);
+        }
+    }
+
+    private static Map<Long, Room> loadRooms(Connection connection) throws SQLException {
+        Map<Long, Room> rooms = new HashMap<>();
+        try (PreparedStatement select = connection.prepareStatement("SELECT id, opens_at, slot_minutes FROM rooms");
+             ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                rooms.put(rs.getLong("id"), new Room(rs.getObject("opens_at", LocalTime.class), rs.getInt("slot_minutes")));
+            }
+        }
+        return rooms;
+    }
+
+    // Ruumi aegade jaotus: avamisajast slotMinutes kaupa
+    private record Room(LocalTime opensAt, int slotMinutes) {
+
+        // Lähim aja piir enne antud aega (broneeringu alguse päeva avamisajast)
+        LocalDateTime alignDown(LocalDateTime time) {
+            LocalDateTime opens = time.toLocalDate().atTime(opensAt);
+            long slotSeconds = slotMinutes * 60L;
+            return opens.plusSeconds(Math.floorDiv(Duration.between(opens, time).toSeconds(), slotSeconds) * slotSeconds);
+        }
+    }
+
+    private record Slot(long roomId, LocalDateTime start) {
+    }
+}
@@ -0,0 +1,3 @@
+-- Room usage statistics rebuild runs on one instance at a time (see V7 scheduled_locks)
+
+INSERT INTO scheduled_locks (name, locked_until, locked_by) VALUES ('room-usage-rebuild', '1970-01-01 00:00:00', '');
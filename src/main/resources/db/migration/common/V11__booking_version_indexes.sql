@@ -0,0 +1,6 @@
+-- List versions (ETag, read cache keys) are the latest change_seq of a room or a user
+
+CREATE INDEX idx_bookings_room_change_seq ON bookings (room_id, change_seq);
+CREATE INDEX idx_bookings_user_change_seq ON bookings (user_id, change_seq);
+CREATE INDEX idx_tombstones_room_change_seq ON booking_tombstones (room_id, change_seq);
+CREATE INDEX idx_tombstones_user_change_seq ON booking_tombstones (user_id, change_seq);
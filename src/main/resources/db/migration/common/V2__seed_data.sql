@@ -0,0 +1,9 @@
+-- Initial users and rooms (previously created by DataInitializer on every start when the tables were empty)
+-- Rooms are open 08:00-22:00
+
+INSERT INTO users (username, full_name, role) VALUES ('admin', 'Admin User', 'ADMIN');
+INSERT INTO users (username, full_name, role) VALUES ('user1', 'Regular User', 'USER');
+
+INSERT INTO rooms (name, capacity, opens_at, closes_at, slot_minutes) VALUES ('Basketball court', 20, '08:00:00', '22:00:00', 30);
+INSERT INTO rooms (name, capacity, opens_at, closes_at, slot_minutes) VALUES ('Jalgpalliruum', 22, '08:00:00', '22:00:00', 60);
+INSERT INTO rooms (name, capacity, opens_at, closes_at, slot_minutes) VALUES ('Saal', 30, '08:00:00', '22:00:00', 30);
@@ -0,0 +1,122 @@
+-- Schema at the switch from ddl-auto=update to migrations; every later change is a new version
+
+CREATE TABLE users (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username  VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    role      VARCHAR(20)  NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE rooms (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    capacity     INTEGER      NOT NULL,
+    opens_at     TIME         NOT NULL,
+    closes_at    TIME         NOT NULL,
+    slot_minutes INTEGER      NOT NULL,
+    CONSTRAINT uk_rooms_name UNIQUE (name)
+);
+
+-- Pooled sequence: Hibernate takes 50 ids per call (allocationSize)
+CREATE SEQUENCE bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE bookings (
+    id           BIGINT       PRIMARY KEY,
+    user_id      BIGINT       NOT NULL,
+    room_id      BIGINT       NOT NULL,
+    start_time   TIMESTAMP(6) NOT NULL,
+    end_time     TIMESTAMP(6) NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    cancelled_at TIMESTAMP(6),
+    change_seq   BIGINT,
+    CONSTRAINT fk_bookings_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_bookings_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
+CREATE INDEX idx_bookings_room_status_time ON bookings (room_id, status, start_time, end_time);
+CREATE INDEX idx_bookings_status_start ON bookings (status, start_time);
+CREATE INDEX idx_bookings_user_start ON bookings (user_id, start_time);
+CREATE INDEX idx_bookings_change_seq ON bookings (change_seq);
+
+CREATE TABLE bookings_archive (
+    id           BIGINT       PRIMARY KEY,
+    user_id      BIGINT       NOT NULL,
+    room_id      BIGINT       NOT NULL,
+    start_time   TIMESTAMP(6) NOT NULL,
+    end_time     TIMESTAMP(6) NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    cancelled_at TIMESTAMP(6),
+    archived_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_bookings_archive_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_bookings_archive_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
+CREATE INDEX idx_bookings_archive_user_start ON bookings_archive (user_id, start_time);
+CREATE INDEX idx_bookings_archive_start ON bookings_archive (start_time);
+
+CREATE SEQUENCE booking_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE booking_events (
+    id          BIGINT       PRIMARY KEY,
+    booking_id  BIGINT       NOT NULL,
+    type        VARCHAR(20)  NOT NULL,
+    actor_id    BIGINT,
+    user_id     BIGINT,
+    room_name   VARCHAR(255) NOT NULL,
+    start_time  TIMESTAMP(6) NOT NULL,
+    end_time    TIMESTAMP(6) NOT NULL,
+    occurred_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX idx_booking_events_booking ON booking_events (booking_id, occurred_at);
+
+CREATE TABLE room_usage_stats (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_id        BIGINT  NOT NULL,
+    usage_day      DATE    NOT NULL,
+    usage_hour     INTEGER NOT NULL,
+    booked_minutes BIGINT  NOT NULL,
+    bookings       BIGINT  NOT NULL,
+    cancellations  BIGINT  NOT NULL,
+    CONSTRAINT uk_room_usage_room_day_hour UNIQUE (room_id, usage_day, usage_hour)
+);
+CREATE INDEX idx_room_usage_day ON room_usage_stats (usage_day, room_id);
+
+CREATE TABLE idempotency_keys (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         BIGINT        NOT NULL,
+    idempotency_key VARCHAR(255)  NOT NULL,
+    fingerprint     VARCHAR(64)   NOT NULL,
+    booking_id      BIGINT        NOT NULL,
+    response        VARCHAR(4000) NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT uk_idempotency_user_key UNIQUE (user_id, idempotency_key)
+);
+CREATE INDEX idx_idempotency_created ON idempotency_keys (created_at);
+
+CREATE TABLE waitlist_entries (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    room_id    BIGINT       NOT NULL,
+    start_time TIMESTAMP(6) NOT NULL,
+    end_time   TIMESTAMP(6) NOT NULL,
+    status     VARCHAR(20)  NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    closed_at  TIMESTAMP(6),
+    booking_id BIGINT,
+    CONSTRAINT fk_waitlist_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_waitlist_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
+CREATE INDEX idx_waitlist_room_status_time ON waitlist_entries (room_id, status, start_time, end_time);
+CREATE INDEX idx_waitlist_user_status ON waitlist_entries (user_id, status);
+
+CREATE TABLE booking_tombstones (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    room_id    BIGINT       NOT NULL,
+    change_seq BIGINT       NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_tombstones_booking UNIQUE (booking_id)
+);
+CREATE INDEX idx_tombstones_change_seq ON booking_tombstones (change_seq);
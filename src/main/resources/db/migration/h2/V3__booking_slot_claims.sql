@@ -0,0 +1,12 @@
+-- Every ACTIVE booking claims its room's slots (room_id, slot_start) in the booking's transaction.
+-- The primary key rejects a second claim, so instances that cannot see each other's locks or
+-- in-memory index still cannot book overlapping times. Claims are removed on cancel and delete.
+
+CREATE TABLE booking_slot_claims (
+    room_id    BIGINT       NOT NULL,
+    slot_start TIMESTAMP(6) NOT NULL,
+    booking_id BIGINT       NOT NULL,
+    CONSTRAINT pk_booking_slot_claims PRIMARY KEY (room_id, slot_start),
+    CONSTRAINT fk_slot_claims_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
+CREATE INDEX idx_slot_claims_booking ON booking_slot_claims (booking_id);
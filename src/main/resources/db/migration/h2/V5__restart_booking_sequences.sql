@@ -0,0 +1,6 @@
+-- Databases created with ddl-auto=update got bookings_seq / booking_events_seq starting at 1 next to
+-- rows that already had ids (bookings used IDENTITY before the pooled sequence). Restart both above the
+-- highest id; Hibernate's pooled optimizer hands out the 50 ids below the returned value (max + 1 ...).
+
+ALTER SEQUENCE bookings_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings);
+ALTER SEQUENCE booking_events_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM booking_events);
@@ -0,0 +1,21 @@
+-- Change sequence (changeSeq) shared by all instances: one counter row, plus the numbers handed out to
+-- transactions that have not finished yet. Sync reads changes only up to the smallest unfinished number.
+
+CREATE TABLE booking_change_counter (
+    id         INT          NOT NULL,
+    last_value BIGINT       NOT NULL,
+    CONSTRAINT pk_booking_change_counter PRIMARY KEY (id)
+);
+
+CREATE TABLE booking_changes_in_flight (
+    seq        BIGINT       NOT NULL,
+    started_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_booking_changes_in_flight PRIMARY KEY (seq)
+);
+
+-- Rows from before change sequences keep getting their id; the counter continues from the largest number
+UPDATE bookings SET change_seq = id WHERE change_seq IS NULL;
+
+INSERT INTO booking_change_counter (id, last_value)
+SELECT 1, GREATEST(COALESCE((SELECT MAX(change_seq) FROM bookings), 0),
+                   COALESCE((SELECT MAX(change_seq) FROM booking_tombstones), 0));
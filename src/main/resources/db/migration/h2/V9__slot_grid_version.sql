@@ -0,0 +1,12 @@
+-- Slot claims carry the version of the room's slot grid (opening hours, slot length) they were computed with.
+-- The foreign key to (rooms.id, rooms.slot_version) makes the claim INSERT itself fail when the grid changed
+-- meanwhile, so bookings need no lock on the room row. A grid change deletes the room's claims, bumps the
+-- version and claims the existing bookings again.
+
+ALTER TABLE rooms ADD COLUMN slot_version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE rooms ADD CONSTRAINT uk_rooms_id_slot_version UNIQUE (id, slot_version);
+
+ALTER TABLE booking_slot_claims ADD COLUMN slot_version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE booking_slot_claims DROP CONSTRAINT fk_slot_claims_room;
+ALTER TABLE booking_slot_claims ADD CONSTRAINT fk_slot_claims_room_grid
+    FOREIGN KEY (room_id, slot_version) REFERENCES rooms (id, slot_version);
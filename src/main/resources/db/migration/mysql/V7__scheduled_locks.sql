@@ -0,0 +1,11 @@
+-- Scheduled jobs that must run on one instance at a time: a job runs only after moving locked_until
+-- of its row into the future. A crashed instance's lock expires at locked_until.
+
+CREATE TABLE scheduled_locks (
+    name         VARCHAR(64)  NOT NULL,
+    locked_until DATETIME(6)  NOT NULL,
+    locked_by    VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_scheduled_locks PRIMARY KEY (name)
+);
+
+INSERT INTO scheduled_locks (name, locked_until, locked_by) VALUES ('booking-archive', '1970-01-01 00:00:00', '');
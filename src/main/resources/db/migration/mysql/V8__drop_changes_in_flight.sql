@@ -0,0 +1,4 @@
+-- Change numbers are now taken in the changing transaction itself, in commit order (see V6):
+-- unfinished numbers no longer need to be tracked.
+
+DROP TABLE booking_changes_in_flight;
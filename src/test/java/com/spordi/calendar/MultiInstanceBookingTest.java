@@ -0,0 +1,312 @@
+package com.spordi.calendar;
+
+import com.spordi.calendar.dto.BatchBookingRequest;
+import com.spordi.calendar.dto.BatchBookingResponse;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingChanges;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.dto.RoomRequest;
+import com.spordi.calendar.dto.RoomResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import com.spordi.calendar.service.BookingChangeSequence;
+import com.spordi.calendar.service.BookingService;
+import com.spordi.calendar.service.BookingSync;
+import com.spordi.calendar.service.BookingVersions;
+import com.spordi.calendar.service.RoomCatalog;
+import com.spordi.calendar.service.RoomService;
+import com.spordi.calendar.service.WaitlistService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Kaks rakenduse instantsi (kaks konteksti) ühe andmebaasiga: kummalgi oma RoomLocks ja mälus olev indeks,
+ * seega teise instantsi broneeringuga kattumise peab tagasi lükkama andmebaas (booking_slot_claims).
+ * Vaikimisi ühine H2 mälubaas; MySQL-iga: -Dmulti.datasource.url=jdbc:mysql://...
+ */
+class MultiInstanceBookingTest {
+
+    private static final String ROOM = "Multi-instance room";
+    private static final int THREADS = 8;
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+    private static Long userId;
+    private static Long adminId;
+
+    @BeforeAll
+    static void startInstances() {
+        String url = System.getProperty("multi.datasource.url", "jdbc:h2:mem:multi-instance;DB_CLOSE_DELAY=-1");
+        first = start(url);
+        second = start(url);
+
+        // Ruum luuakse ainult esimeses instantsis; teine leiab selle oma kataloogist ise
+        TestRooms.ensure(first.getBean(RoomRepository.class), first.getBean(RoomCatalog.class), ROOM);
+        userId = first.getBean(UserRepository.class).findByUsername("user1").orElseThrow().getId();
+        adminId = first.getBean(UserRepository.class).findByUsername("admin").orElseThrow().getId();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        second.close();
+        first.close();
+    }
+
+    @Test
+    void slotBookedOnOneInstanceIsRejectedOnTheOther() {
+        LocalDateTime start = LocalDate.now().plusDays(30).atTime(10, 0);
+        BookingResponse booked = service(first).createBooking(new BookingRequest(ROOM, start, start.plusHours(1)), userId);
+
+        // Teise instantsi indeks ei tea sellest broneeringust midagi
+        assertThatThrownBy(() -> service(second).createBooking(
+                new BookingRequest(ROOM, start.plusMinutes(30), start.plusMinutes(90)), userId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("This time slot is already booked");
+
+        // Tühistamine vabastab ajad ka teisele instantsile
+        service(first).cancelBooking(booked.getId(), userId);
+        BookingResponse rebooked = service(second).createBooking(
+                new BookingRequest(ROOM, start.plusMinutes(30), start.plusMinutes(90)), userId);
+
+        assertThat(activeInRoom(start, start.plusHours(2))).extracting(Booking::getId)
+                .containsExactly(rebooked.getId());
+    }
+
+    @Test
+    void slotCancelledOnTheOtherInstanceCanBeBookedAgain() {
+        LocalDateTime start = LocalDate.now().plusDays(32).atTime(10, 0);
+        BookingResponse booked = service(first).createBooking(new BookingRequest(ROOM, start, start.plusHours(1)), userId);
+
+        // Esimese instantsi indeksis on broneering veel alles
+        service(second).cancelBooking(booked.getId(), userId);
+        BookingResponse rebooked = service(first).createBooking(new BookingRequest(ROOM, start, start.plusHours(1)), userId);
+
+        assertThat(activeInRoom(start, start.plusHours(1))).extracting(Booking::getId)
+                .containsExactly(rebooked.getId());
+    }
+
+    @Test
+    void waitlistSeesBookingMadeOnTheOtherInstance() {
+        LocalDateTime start = LocalDate.now().plusDays(33).atTime(10, 0);
+        service(first).createBooking(new BookingRequest(ROOM, start, start.plusHours(1)), userId);
+
+        assertThat(second.getBean(WaitlistService.class)
+                .join(new BookingRequest(ROOM, start, start.plusHours(1)), userId)).isNotNull();
+    }
+
+    @Test
+    void slotGridChangedOnTheOtherInstanceIsUsedForClaims() {
+        LocalDate day = LocalDate.now().plusDays(34);
+        RoomResponse room = first.getBean(RoomService.class).createRoom(RoomRequest.builder()
+                .name("Multi-instance grid room")
+                .capacity(4)
+                .opensAt(LocalTime.of(8, 0))
+                .closesAt(LocalTime.of(20, 0))
+                .slotMinutes(60)
+                .build(), adminId);
+
+        // Teise instantsi kataloog laeb ruumi tunniste aegadega
+        service(second).createBooking(new BookingRequest(room.getName(), day.atTime(12, 0), day.atTime(13, 0)), userId);
+
+        RoomRequest halfHours = RoomRequest.builder()
+                .name(room.getName())
+                .capacity(4)
+                .opensAt(LocalTime.of(8, 0))
+                .closesAt(LocalTime.of(20, 0))
+                .slotMinutes(30)
+                .build();
+        first.getBean(RoomService.class).updateRoom(room.getId(), halfHours, adminId);
+        service(first).createBooking(new BookingRequest(room.getName(), day.atTime(10, 30), day.atTime(11, 0)), userId);
+
+        // Vana jaotuse järgi hõivaks 10:00-11:00 ainult aja 10:00 ega märkaks 10:30 broneeringut
+        assertThatThrownBy(() -> service(second).createBooking(
+                new BookingRequest(room.getName(), day.atTime(10, 0), day.atTime(11, 0)), userId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("This time slot is already booked");
+        assertThat(first.getBean(BookingRepository.class)
+                .findActiveOverlapping(room.getId(), day.atTime(10, 0), day.atTime(11, 0))).hasSize(1);
+    }
+
+    @Test
+    void bookingWithStaleSlotGridIsCheckedAgainstTheNewGrid() {
+        LocalDate day = LocalDate.now().plusDays(37);
+        RoomRequest hours = RoomRequest.builder()
+                .name("Multi-instance stale grid room")
+                .capacity(4)
+                .opensAt(LocalTime.of(8, 0))
+                .closesAt(LocalTime.of(20, 0))
+                .slotMinutes(60)
+                .build();
+        RoomResponse room = first.getBean(RoomService.class).createRoom(hours, adminId);
+        service(second).createBooking(new BookingRequest(room.getName(), day.atTime(12, 0), day.atTime(13, 0)), userId);
+
+        // Esimene instants avab ruumi tund hiljem; teise kataloog teab veel vana aega
+        hours.setOpensAt(LocalTime.of(9, 0));
+        first.getBean(RoomService.class).updateRoom(room.getId(), hours, adminId);
+
+        assertThatThrownBy(() -> service(second).createBooking(
+                new BookingRequest(room.getName(), day.atTime(8, 0), day.atTime(9, 0)), userId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage(room.getName() + " is open 09:00-20:00");
+
+        BatchBookingResponse batch = service(second).createBookings(BatchBookingRequest.builder()
+                .slots(List.of(new BookingRequest(room.getName(), day.atTime(8, 0), day.atTime(9, 0)),
+                        new BookingRequest(room.getName(), day.atTime(9, 0), day.atTime(10, 0))))
+                .allOrNothing(false)
+                .build(), userId);
+        assertThat(batch.getCreated()).extracting(BookingResponse::getStartTime).containsExactly(day.atTime(9, 0));
+        assertThat(batch.getRejected()).extracting(BatchBookingResponse.RejectedSlot::getReason)
+                .containsExactly(room.getName() + " is open 09:00-20:00");
+    }
+
+    @Test
+    void listVersionsChangeOnBothInstances() {
+        LocalDateTime start = LocalDate.now().plusDays(38).atTime(10, 0);
+        Long roomId = first.getBean(RoomCatalog.class).resolveId(ROOM);
+        BookingVersions onFirst = first.getBean(BookingVersions.class);
+        long room = onFirst.room(roomId);
+        long user = onFirst.user(userId);
+
+        service(second).createBooking(new BookingRequest(ROOM, start, start.plusHours(1)), userId);
+
+        // Esimese instantsi ETag ja vahemälu võti muutuvad, kuigi muudatus tehti teises
+        BookingVersions onSecond = second.getBean(BookingVersions.class);
+        assertThat(onFirst.room(roomId)).isGreaterThan(room).isEqualTo(onSecond.room(roomId));
+        assertThat(onFirst.user(userId)).isGreaterThan(user).isEqualTo(onSecond.user(userId));
+        assertThat(onFirst.etag(null)).isEqualTo(onSecond.etag(null));
+    }
+
+    @Test
+    void changesFromBothInstancesGetDistinctSequenceNumbers() {
+        LocalDateTime start = LocalDate.now().plusDays(36).atTime(10, 0);
+        Long roomId = first.getBean(RoomCatalog.class).resolveId(ROOM);
+        long token = first.getBean(BookingChangeSequence.class).stableToken();
+
+        BookingResponse onFirst = service(first).createBooking(new BookingRequest(ROOM, start, start.plusHours(1)), userId);
+        BookingResponse onSecond = service(second).createBooking(
+                new BookingRequest(ROOM, start.plusHours(2), start.plusHours(3)), userId);
+
+        // Kumbki instants näeb mõlemat muudatust, kumbki oma numbriga
+        BookingChanges changes = first.getBean(BookingSync.class).changes(token, roomId, null, null);
+        assertThat(changes.getChanged()).extracting(BookingResponse::getId)
+                .containsExactly(onFirst.getId(), onSecond.getId());
+        assertThat(second.getBean(BookingSync.class).changes(token, roomId, null, null).getToken())
+                .isEqualTo(changes.getToken());
+    }
+
+    @Test
+    void concurrentRequestsOnBothInstancesBookTheSlotOnce() throws Exception {
+        LocalDateTime start = LocalDate.now().plusDays(31).atTime(10, 0);
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            BookingService service = service(i % 2 == 0 ? first : second);
+            // Osaliselt kattuvad ajad: 10:00-11:00 ja 10:30-11:30
+            LocalDateTime slotStart = i % 4 < 2 ? start : start.plusMinutes(30);
+            tasks.add(() -> tryBook(service, slotStart, slotStart.plusHours(1)));
+        }
+
+        assertThat(runConcurrently(tasks)).isEqualTo(1);
+        assertThat(activeInRoom(start, start.plusMinutes(90))).hasSize(1);
+    }
+
+    @Test
+    void concurrentPartialBatchesRejectOnlyTheContestedSlot() throws Exception {
+        LocalDateTime contested = LocalDate.now().plusDays(35).atTime(10, 0);
+
+        // Iga partii: ühine aeg 10:00-11:00 ja oma aeg alates 12:00
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS * 2; i++) {
+            BookingService service = service(i % 2 == 0 ? first : second);
+            LocalDateTime own = contested.plusHours(2).plusMinutes(30L * i);
+            BatchBookingRequest batch = BatchBookingRequest.builder()
+                    .slots(List.of(new BookingRequest(ROOM, contested, contested.plusHours(1)),
+                            new BookingRequest(ROOM, own, own.plusMinutes(30))))
+                    .allOrNothing(false)
+                    .build();
+            tasks.add(() -> {
+                BatchBookingResponse response = service.createBookings(batch, userId);
+                assertThat(response.getCreated()).anyMatch(created -> created.getStartTime().equals(own));
+                return response.getCreated().size() == 2;
+            });
+        }
+
+        assertThat(runConcurrently(tasks)).isEqualTo(1);
+        assertThat(activeInRoom(contested, contested.plusHours(1))).hasSize(1);
+        assertThat(activeInRoom(contested.plusHours(2), contested.plusHours(11))).hasSize(THREADS * 2);
+    }
+
+    // ==================== Helper Methods ====================
+
+    private static ConfigurableApplicationContext start(String url) {
+        return new SpringApplicationBuilder(CalendarApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--logging.level.root=WARN");
+    }
+
+    private static BookingService service(ConfigurableApplicationContext context) {
+        return context.getBean(BookingService.class);
+    }
+
+    private boolean tryBook(BookingService service, LocalDateTime start, LocalDateTime end) {
+        try {
+            service.createBooking(new BookingRequest(ROOM, start, end), userId);
+            return true;
+        } catch (BusinessException e) {
+            return false;
+        }
+    }
+
+    private int runConcurrently(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    return task.call();
+                }));
+            }
+            startGate.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Booking> activeInRoom(LocalDateTime from, LocalDateTime to) {
+        Long roomId = first.getBean(RoomCatalog.class).resolveId(ROOM);
+        return first.getBean(BookingRepository.class).findActiveOverlapping(roomId, from, to);
+    }
+}
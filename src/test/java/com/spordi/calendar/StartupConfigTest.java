@@ -0,0 +1,38 @@
+package com.spordi.calendar;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Skeem tuleb Flyway migratsioonidest; "prod" profiilis luuakse päringutega kasutatavad beanid laisalt,
+ * ajastatud ja taustatööd kohe (StartupConfig). Kumbki kontekst puhtas mälubaasis.
+ */
+class StartupConfigTest {
+
+    @Test
+    void migrationsCreateTheSchema() {
+        try (ConfigurableApplicationContext context = start("test")) {
+            assertThat(context.getBean(Flyway.class).info().applied()).hasSizeGreaterThanOrEqualTo(2);
+        }
+    }
+
+    @Test
+    void prodProfileDefersRequestDrivenBeans() {
+        try (ConfigurableApplicationContext context = start("test", "prod")) {
+            // Eksport luuakse alles esimesel päringul, ajastatud arhiveerija kohe
+            assertThat(context.getBeanFactory().containsSingleton("bookingExporter")).isFalse();
+            assertThat(context.getBeanFactory().containsSingleton("bookingArchiver")).isTrue();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(CalendarApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:config-" + String.join("-", profiles) + ";DB_CLOSE_DELAY=-1");
+    }
+}
@@ -0,0 +1,48 @@
+package com.spordi.calendar;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Käivitusaeg: vaikeseadistus ja "prod" profiil (laisk initsialiseerimine), kumbki puhtas mälubaasis,
+ * seega koos Flyway migratsioonidega. Kukub, kui käivitus ületab -Dstartup.max-seconds (vaikimisi 20).
+ * Ei käivitu tavalise testiga (sõltub masinast): ./mvnw -Pload test  või  ./gradlew loadTest
+ * Beanide ja migratsioonide kontroll on StartupConfigTest'is.
+ */
+@Tag("load")
+class StartupTimeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeTest.class);
+
+    private static final Duration BUDGET = Duration.ofSeconds(Long.getLong("startup.max-seconds", 20));
+
+    @Test
+    void defaultProfileStartsWithinBudget() {
+        assertThat(startupTime("test")).isLessThan(BUDGET);
+    }
+
+    @Test
+    void prodProfileStartsWithinBudget() {
+        assertThat(startupTime("test", "prod")).isLessThan(BUDGET);
+    }
+
+    private static Duration startupTime(String... profiles) {
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CalendarApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:startup-" + String.join("-", profiles) + ";DB_CLOSE_DELAY=-1")) {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+            log.info("Startup ({}): {} ms", String.join(", ", profiles), elapsed.toMillis());
+            return elapsed;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.spordi.calendar;
+
+import com.spordi.calendar.model.Room;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.service.RoomCatalog;
+
+import java.time.LocalTime;
+
+/**
+ * Testide ruumid: vaikimisi avatud ööpäev läbi, 30-minutilised ajad, et testid saaksid broneerida suvalisel poolel tunnil.
+ */
+public final class TestRooms {
+
+    private TestRooms() {
+    }
+
+    /**
+     * Ruumi id; ruum luuakse, kui seda veel pole (ka siis, kui teine testikontekst lõi selle samasse baasi)
+     */
+    public static Long ensure(RoomRepository roomRepository, RoomCatalog roomCatalog, String name) {
+        return ensure(roomRepository, roomCatalog, name, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, 30);
+    }
+
+    /**
+     * Piiratud lahtiolekuaja või aja pikkusega ruum (closesAt 00:00 = päeva lõpuni)
+     */
+    public static Long ensure(RoomRepository roomRepository, RoomCatalog roomCatalog, String name,
+                              LocalTime opensAt, LocalTime closesAt, int slotMinutes) {
+        return roomCatalog.find(name)
+                .map(RoomCatalog.Entry::id)
+                .orElseGet(() -> {
+                    Room room = roomRepository.save(Room.builder()
+                            .name(name)
+                            .capacity(10)
+                            .opensAt(opensAt)
+                            .closesAt(closesAt)
+                            .slotMinutes(slotMinutes)
+                            .build());
+                    roomCatalog.refresh();
+                    return room.getId();
+                });
+    }
+}
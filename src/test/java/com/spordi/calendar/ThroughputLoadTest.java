@@ -0,0 +1,167 @@
+package com.spordi.calendar;
+
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import com.spordi.calendar.service.BookingService;
+import com.spordi.calendar.service.RoomCatalog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Koormustest: vaikeseadistus (Tomcat'i platvormilõimed) vs "prod" profiil (virtuaalsed lõimed, Hikari).
+ * Ei käivitu tavalise testiga: ./mvnw -Pload test  või  ./gradlew loadTest
+ * H2 mälubaas alahindab JDBC ootamist; päris andmebaasiga: -Dload.datasource.url=jdbc:mysql://...
+ * Kukub, kui "prod" läbilase või p99 on vaikeseadistusest halvem rohkem kui -Dload.tolerance (vaikimisi 0.25).
+ */
+@Tag("load")
+class ThroughputLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputLoadTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.measure-seconds", 20));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+    private static final int ROOMS = 10;
+    private static final int BOOKINGS = 1000;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void prodProfileKeepsUpUnderConcurrentReads() throws Exception {
+        Result platform = run("test");
+        Result virtual = run("test", "prod");
+
+        report("default (platform threads)", platform);
+        report("prod (virtual threads)", virtual);
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+        assertThat(virtual.requests()).isPositive();
+
+        // Prod ei tohi olla aeglasem (mõõtmise müra jaoks lubatud kõikumine)
+        assertThat(virtual.throughput())
+                .as("prod req/s vs default %.0f", platform.throughput())
+                .isGreaterThanOrEqualTo(platform.throughput() * (1 - TOLERANCE));
+        assertThat(virtual.p99Millis())
+                .as("prod p99 ms vs default %.1f", platform.p99Millis())
+                .isLessThanOrEqualTo(platform.p99Millis() * (1 + TOLERANCE));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private Result run(String... profiles) throws Exception {
+        String url = System.getProperty("load.datasource.url",
+                "jdbc:h2:mem:load-" + String.join("-", profiles) + ";DB_CLOSE_DELAY=-1");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CalendarApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--booking.cache.max-size=0",
+                        "--logging.level.root=WARN",
+                        // Tulemused logitakse pärast kontekstide sulgemist; juurtase jääb WARN'iks
+                        "--logging.level." + ThroughputLoadTest.class.getName() + "=INFO")) {
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LocalDateTime start = seed(context);
+
+            List<URI> uris = List.of(
+                    URI.create("http://localhost:" + port + "/api/bookings?from=" + start + "&to=" + start.plusDays(7)),
+                    URI.create("http://localhost:" + port + "/api/bookings/date?date=" + start.plusDays(1)),
+                    URI.create("http://localhost:" + port + "/api/bookings/user/"
+                            + context.getBean(UserRepository.class).findByUsername("user1").orElseThrow().getId()));
+
+            drive(uris, WARMUP);
+            return drive(uris, MEASURE);
+        }
+    }
+
+    private LocalDateTime seed(ConfigurableApplicationContext context) {
+        BookingService bookingService = context.getBean(BookingService.class);
+        Long userId = context.getBean(UserRepository.class).findByUsername("user1").orElseThrow().getId();
+        LocalDateTime start = LocalDate.now().plusDays(2).atStartOfDay();
+
+        for (int i = 0; i < ROOMS; i++) {
+            TestRooms.ensure(context.getBean(RoomRepository.class), context.getBean(RoomCatalog.class), "Load room " + i);
+        }
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime slot = start.plusHours(i / ROOMS);
+            bookingService.createBooking(new BookingRequest("Load room " + i % ROOMS, slot, slot.plusHours(1)), userId);
+        }
+        return start;
+    }
+
+    // CLIENTS samaaegset klienti, igaüks saadab päringuid järjest kuni aja lõpuni
+    private Result drive(List<URI> uris, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<List<Long>>> workers = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                workers.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        URI uri = uris.get(ThreadLocalRandom.current().nextInt(uris.size()));
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(
+                                    HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - begin);
+                    }
+                    return latencies;
+                }));
+            }
+        }
+
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> worker : workers) {
+            all.addAll(worker.get());
+        }
+        all.sort(null);
+
+        long p99 = all.isEmpty() ? 0 : all.get((int) Math.min(all.size() - 1, Math.ceil(all.size() * 0.99) - 1));
+        return new Result(all.size(), all.size() / (double) duration.toSeconds(), p99 / 1_000_000.0, errors.get());
+    }
+
+    private static void report(String label, Result result) {
+        log.info("{}: {} req/s, p99 {} ms, {} errors", label, Math.round(result.throughput()),
+                String.format("%.1f", result.p99Millis()), result.errors());
+    }
+
+    private record Result(long requests, double throughput, double p99Millis, long errors) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.spordi.calendar.controller;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import com.spordi.calendar.service.BookingService;
+import com.spordi.calendar.service.RoomCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingControllerEtagTest {
+
+    private static final String ROOM = "ETag room";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        TestRooms.ensure(roomRepository, roomCatalog, ROOM);
+        day = LocalDate.now().plusDays(45).atStartOfDay();
+    }
+
+    @Test
+    void unchangedWindowIsNotModifiedUntilABookingChanges() throws Exception {
+        String etag = etagOf(window().andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andReturn());
+
+        window(etag).andExpect(status().isNotModified());
+
+        Long userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        bookingService.createBooking(new BookingRequest(ROOM, day.plusHours(10), day.plusHours(11)), userId);
+
+        String changed = etagOf(window(etag).andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andReturn());
+        assertThat(changed).isNotEqualTo(etag);
+
+        window(changed).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void etagDependsOnTheResolvedWindow() throws Exception {
+        String today = etagOf(mockMvc.perform(get("/api/bookings").param("room", ROOM)).andReturn());
+        String explicit = etagOf(window().andReturn());
+
+        // Vaikimisi aken (täna) ja teine aken ei tohi jagada ETag'i
+        assertThat(today).isNotEqualTo(explicit);
+        assertThat(today).contains(LocalDate.now().atStartOfDay().toString());
+    }
+
+    @Test
+    void userListEtagChangesOnlyWithTheUsersOwnBookings() throws Exception {
+        Long userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        String etag = etagOf(mockMvc.perform(get("/api/bookings/user/{userId}", userId))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        // Teise kasutaja broneering seda nimekirja ei muuda
+        bookingService.createBooking(new BookingRequest(ROOM, day.plusHours(12), day.plusHours(13)), adminId);
+        mockMvc.perform(get("/api/bookings/user/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        bookingService.createBooking(new BookingRequest(ROOM, day.plusHours(14), day.plusHours(15)), userId);
+        String changed = etagOf(mockMvc.perform(get("/api/bookings/user/{userId}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn());
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    // ==================== Helper Methods ====================
+
+    private ResultActions window() throws Exception {
+        return mockMvc.perform(windowRequest());
+    }
+
+    private ResultActions window(String ifNoneMatch) throws Exception {
+        return mockMvc.perform(windowRequest().header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+    }
+
+    private MockHttpServletRequestBuilder windowRequest() {
+        return get("/api/bookings")
+                .param("room", ROOM)
+                .param("from", day.toString())
+                .param("to", day.plusDays(1).toString());
+    }
+
+    private static String etagOf(MvcResult result) {
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+}
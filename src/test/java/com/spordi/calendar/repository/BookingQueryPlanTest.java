@@ -0,0 +1,43 @@
+package com.spordi.calendar.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingQueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void overlapCheckUsesRoomStatusTimeIndex() {
+        String plan = explain("SELECT COUNT(*) FROM bookings " +
+                "WHERE status = 'ACTIVE' " +
+                "AND room_id = 1 " +
+                "AND start_time < TIMESTAMP '2030-01-01 11:00:00' " +
+                "AND end_time > TIMESTAMP '2030-01-01 10:00:00'");
+
+        assertThat(plan).containsIgnoringCase("idx_bookings_room_status_time");
+    }
+
+    @Test
+    void dayLookupUsesStatusStartIndex() {
+        String plan = explain("SELECT * FROM bookings " +
+                "WHERE status = 'ACTIVE' " +
+                "AND start_time >= TIMESTAMP '2030-01-01 00:00:00' " +
+                "AND start_time < TIMESTAMP '2030-01-02 00:00:00' " +
+                "ORDER BY start_time");
+
+        assertThat(plan).containsIgnoringCase("idx_bookings_status_start");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
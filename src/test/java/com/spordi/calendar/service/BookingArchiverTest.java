@@ -0,0 +1,107 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.model.User;
+import com.spordi.calendar.repository.ArchivedBookingRepository;
+import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingArchiverTest {
+
+    // Kaugel sellest, mida järjestus testides välja annab
+    private static final AtomicLong NEXT_ID = new AtomicLong(9_000_000);
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archiveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(User.builder()
+                .username("archive-user-" + NEXT_ID.get())
+                .fullName("Archive User")
+                .role(User.Role.USER)
+                .build()).getId();
+
+        // Teenus ei luba minevikku broneerida, seega otse tabelisse
+        Long roomId = TestRooms.ensure(roomRepository, roomCatalog, "Archive room");
+        bookingId = NEXT_ID.incrementAndGet();
+        LocalDateTime start = LocalDateTime.now().minusYears(2).withNano(0);
+        jdbcTemplate.update("INSERT INTO bookings (id, user_id, room_id, start_time, end_time, status, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, 'ACTIVE', ?)", bookingId, userId, roomId, start, start.plusHours(1), start);
+    }
+
+    @Test
+    void oldBookingsMoveToArchive() {
+        assertThat(bookingArchiver.archive()).isPositive();
+
+        assertThat(bookingRepository.existsById(bookingId)).isFalse();
+        assertThat(archiveRepository.existsById(bookingId)).isTrue();
+    }
+
+    @Test
+    void archiveIsSkippedWhileAnotherInstanceHoldsTheLock() {
+        jdbcTemplate.update("UPDATE scheduled_locks SET locked_until = ?, locked_by = 'other' WHERE name = 'booking-archive'",
+                LocalDateTime.now().plusHours(1));
+        try {
+            assertThat(bookingArchiver.archive()).isZero();
+            assertThat(bookingRepository.existsById(bookingId)).isTrue();
+        } finally {
+            jdbcTemplate.update("UPDATE scheduled_locks SET locked_until = ? WHERE name = 'booking-archive'",
+                    LocalDateTime.now());
+        }
+
+        assertThat(bookingArchiver.archive()).isPositive();
+        assertThat(bookingRepository.existsById(bookingId)).isFalse();
+    }
+
+    @Test
+    void readsFallBackToArchive() {
+        bookingArchiver.archive();
+
+        BookingResponse booking = bookingService.getBookingById(bookingId);
+
+        assertThat(booking.getRoomName()).isEqualTo("Archive room");
+        assertThat(bookingService.getUserBookings(userId))
+                .extracting(BookingResponse::getId)
+                .containsExactly(bookingId);
+    }
+}
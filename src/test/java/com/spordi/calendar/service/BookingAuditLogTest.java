@@ -0,0 +1,64 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingHistoryEntry;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingAuditLogTest {
+
+    @Autowired
+    private BookingAuditLog bookingAuditLog;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void historySurvivesCancelAndDelete() throws Exception {
+        Long userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        LocalDateTime start = LocalDate.now().plusDays(60).atTime(9, 0);
+
+        BookingResponse booking = bookingService.createBooking(
+                new BookingRequest("Saal", start, start.plusHours(1)), userId);
+        bookingService.cancelBooking(booking.getId(), userId);
+        bookingService.deleteBooking(booking.getId(), adminId);
+
+        List<BookingHistoryEntry> history = awaitHistory(booking.getId(), 3);
+
+        assertThat(history).extracting(BookingHistoryEntry::getType)
+                .containsExactly("CREATED", "CANCELLED", "DELETED");
+        assertThat(history).extracting(BookingHistoryEntry::getActorId)
+                .containsExactly(userId, userId, adminId);
+    }
+
+    // Kirjutaja lõim võib partii juba käes hoida; oota, kuni see on salvestatud
+    private List<BookingHistoryEntry> awaitHistory(Long bookingId, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<BookingHistoryEntry> history;
+        do {
+            bookingAuditLog.flush();
+            history = bookingAuditLog.history(bookingId);
+            if (history.size() >= expected) {
+                break;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+        return history;
+    }
+}
@@ -0,0 +1,129 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.FreeSlot;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Vabad ajad: lahtiolekuajaga piiratud ruumid, aja piirid, akna algusest üle ulatuvad broneeringud,
+ * limit ja järjestus üle mitme ruumi. Iga test kasutab oma päevi.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingAvailabilityTest {
+
+    // 08:00-20:00 tunni kaupa; 08:00-22:00 poole tunni kaupa
+    private static final String GYM = "Availability gym";
+    private static final String COURT = "Availability court";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        TestRooms.ensure(roomRepository, roomCatalog, GYM, LocalTime.of(8, 0), LocalTime.of(20, 0), 60);
+        TestRooms.ensure(roomRepository, roomCatalog, COURT, LocalTime.of(8, 0), LocalTime.of(22, 0), 30);
+    }
+
+    @Test
+    void freeTimeIsClippedToOpeningHours() {
+        LocalDate day = LocalDate.now().plusDays(70);
+
+        List<FreeSlot> free = bookingService.findAvailability(List.of(GYM),
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay(), 60, null);
+
+        assertThat(free).extracting(FreeSlot::getRoomName, FreeSlot::getStartTime, FreeSlot::getEndTime)
+                .containsExactly(tuple(GYM, day.atTime(8, 0), day.atTime(20, 0)));
+    }
+
+    @Test
+    void windowEdgesAreAlignedToSlots() {
+        LocalDate day = LocalDate.now().plusDays(71);
+
+        // 10:15-14:45 → ainult täistunnid 11:00-14:00
+        List<FreeSlot> free = bookingService.findAvailability(List.of(GYM),
+                day.atTime(10, 15), day.atTime(14, 45), 60, null);
+
+        assertThat(free).extracting(FreeSlot::getStartTime, FreeSlot::getEndTime)
+                .containsExactly(tuple(day.atTime(11, 0), day.atTime(14, 0)));
+    }
+
+    @Test
+    void gapsBetweenBookingsRespectMinimumDuration() {
+        LocalDate day = LocalDate.now().plusDays(72);
+        book(GYM, day.atTime(10, 0), day.atTime(11, 0));
+        book(GYM, day.atTime(13, 0), day.atTime(14, 0));
+
+        List<FreeSlot> all = bookingService.findAvailability(List.of(GYM),
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay(), 60, null);
+        List<FreeSlot> threeHours = bookingService.findAvailability(List.of(GYM),
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay(), 180, null);
+
+        assertThat(all).extracting(FreeSlot::getStartTime, FreeSlot::getEndTime).containsExactly(
+                tuple(day.atTime(8, 0), day.atTime(10, 0)),
+                tuple(day.atTime(11, 0), day.atTime(13, 0)),
+                tuple(day.atTime(14, 0), day.atTime(20, 0)));
+        assertThat(threeHours).extracting(FreeSlot::getStartTime)
+                .containsExactly(day.atTime(14, 0));
+    }
+
+    @Test
+    void bookingStraddlingWindowStartBlocksUntilItEnds() {
+        LocalDate day = LocalDate.now().plusDays(73);
+        book(GYM, day.atTime(9, 0), day.atTime(12, 0));
+
+        List<FreeSlot> free = bookingService.findAvailability(List.of(GYM),
+                day.atTime(10, 0), day.atTime(20, 0), 60, null);
+
+        assertThat(free).extracting(FreeSlot::getStartTime, FreeSlot::getEndTime)
+                .containsExactly(tuple(day.atTime(12, 0), day.atTime(20, 0)));
+    }
+
+    @Test
+    void limitKeepsEarliestSlotsAcrossRooms() {
+        LocalDate day = LocalDate.now().plusDays(74);
+        book(COURT, day.atTime(8, 0), day.atTime(9, 30));
+
+        List<FreeSlot> free = bookingService.findAvailability(List.of(GYM, COURT),
+                day.atStartOfDay(), day.plusDays(2).atStartOfDay(), 30, 3);
+
+        // Algusaja järgi, sama aja korral ruumi nime järgi
+        assertThat(free).extracting(FreeSlot::getRoomName, FreeSlot::getStartTime).containsExactly(
+                tuple(GYM, day.atTime(8, 0)),
+                tuple(COURT, day.atTime(9, 30)),
+                tuple(COURT, day.plusDays(1).atTime(8, 0)));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void book(String room, LocalDateTime start, LocalDateTime end) {
+        bookingService.createBooking(new BookingRequest(room, start, end), userId);
+    }
+}
@@ -0,0 +1,159 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BatchBookingRequest;
+import com.spordi.calendar.dto.BatchBookingResponse;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.dto.RecurrenceRule;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Mitme broneeringu loomine: kõik-või-mitte-midagi vs osaline, korduv reegel ja kattuvus partii sees.
+ * Iga test kasutab oma päevi, et testid üksteist ei segaks.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingBatchTest {
+
+    private static final String ROOM = "Batch room";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private Long userId;
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        roomId = TestRooms.ensure(roomRepository, roomCatalog, ROOM);
+    }
+
+    @Test
+    void allOrNothingRejectsWholeBatchWhenOneSlotIsTaken() {
+        LocalDateTime day = LocalDate.now().plusDays(60).atStartOfDay();
+        book(day.withHour(10));
+
+        assertThatThrownBy(() -> bookingService.createBookings(BatchBookingRequest.builder()
+                .slots(List.of(slot(day.withHour(8)), slot(day.withHour(10)), slot(day.withHour(12))))
+                .build(), userId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageStartingWith("1 of 3 slots cannot be booked: This time slot is already booked");
+
+        assertThat(activeOn(day)).extracting(Booking::getStartTime).containsExactly(day.withHour(10));
+    }
+
+    @Test
+    void partialBatchSavesFreeSlotsAndReportsTheRest() {
+        LocalDateTime day = LocalDate.now().plusDays(61).atStartOfDay();
+        book(day.withHour(10));
+
+        BatchBookingResponse response = bookingService.createBookings(BatchBookingRequest.builder()
+                .slots(List.of(slot(day.withHour(8)), slot(day.withHour(10)), slot(day.withHour(12)),
+                        new BookingRequest("No such room", day.withHour(14), day.withHour(15))))
+                .allOrNothing(false)
+                .build(), userId);
+
+        assertThat(response.getCreated()).extracting(BookingResponse::getStartTime)
+                .containsExactly(day.withHour(8), day.withHour(12));
+        assertThat(response.getRejected()).extracting(rejected -> rejected.getSlot().getStartTime())
+                .containsExactlyInAnyOrder(day.withHour(10), day.withHour(14));
+        assertThat(activeOn(day)).hasSize(3);
+    }
+
+    @Test
+    void recurrenceExpandsToCountOccurrences() {
+        LocalDateTime first = LocalDate.now().plusDays(62).atTime(18, 0);
+
+        BatchBookingResponse response = bookingService.createBookings(BatchBookingRequest.builder()
+                .recurrence(RecurrenceRule.builder()
+                        .roomName(ROOM)
+                        .startTime(first)
+                        .endTime(first.plusMinutes(90))
+                        .intervalDays(7)
+                        .count(4)
+                        .build())
+                .build(), userId);
+
+        assertThat(response.getRejected()).isEmpty();
+        assertThat(response.getCreated()).extracting(BookingResponse::getStartTime)
+                .containsExactly(first, first.plusDays(7), first.plusDays(14), first.plusDays(21));
+        assertThat(response.getCreated()).allSatisfy(created ->
+                assertThat(created.getEndTime()).isEqualTo(created.getStartTime().plusMinutes(90)));
+    }
+
+    @Test
+    void invalidRecurrenceIsRejected() {
+        LocalDateTime first = LocalDate.now().plusDays(63).atTime(18, 0);
+
+        assertThatThrownBy(() -> bookingService.createBookings(BatchBookingRequest.builder()
+                .recurrence(RecurrenceRule.builder().roomName(ROOM).startTime(first).endTime(first.plusHours(1))
+                        .count(0).build())
+                .build(), userId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Recurrence needs a positive interval and 1-200 occurrences");
+    }
+
+    @Test
+    void overlappingSlotsInsideOneBatchAreRejected() {
+        LocalDateTime day = LocalDate.now().plusDays(64).atStartOfDay();
+
+        BatchBookingResponse response = bookingService.createBookings(BatchBookingRequest.builder()
+                .slots(List.of(slot(day.withHour(10)),
+                        new BookingRequest(ROOM, day.withHour(10).plusMinutes(30), day.withHour(11).plusMinutes(30)),
+                        slot(day.withHour(11))))
+                .allOrNothing(false)
+                .build(), userId);
+
+        // Esimene saab aja, teine kattub sellega; kolmas algab täpselt esimese lõpus
+        assertThat(response.getCreated()).extracting(BookingResponse::getStartTime)
+                .containsExactly(day.withHour(10), day.withHour(11));
+        assertThat(response.getRejected()).singleElement().satisfies(rejected -> {
+            assertThat(rejected.getSlot().getStartTime()).isEqualTo(day.withHour(10).plusMinutes(30));
+            assertThat(rejected.getReason()).isEqualTo("This time slot is already booked");
+        });
+    }
+
+    // ==================== Helper Methods ====================
+
+    private BookingRequest slot(LocalDateTime start) {
+        return new BookingRequest(ROOM, start, start.plusHours(1));
+    }
+
+    private void book(LocalDateTime start) {
+        bookingService.createBooking(slot(start), userId);
+    }
+
+    private List<Booking> activeOn(LocalDateTime day) {
+        return bookingRepository.findActiveOverlapping(roomId, day, day.plusDays(1));
+    }
+}
@@ -0,0 +1,118 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.exception.NotFoundException;
+import com.spordi.calendar.exception.UnauthorizedException;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingCancelTest {
+
+    private static final String ROOM = "Cancel room";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private Long userId;
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        TestRooms.ensure(roomRepository, roomCatalog, ROOM);
+    }
+
+    @Test
+    void cancelSetsStatusInOneUpdate() {
+        BookingResponse booking = book(LocalDate.now().plusDays(40).atTime(9, 0));
+
+        bookingService.cancelBooking(booking.getId(), userId);
+
+        assertThat(bookingRepository.findById(booking.getId())).hasValueSatisfying(cancelled -> {
+            assertThat(cancelled.getStatus()).isEqualTo(BookingStatus.CANCELLED);
+            assertThat(cancelled.getCancelledAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void refusedCancelExplainsWhy() {
+        BookingResponse booking = book(LocalDate.now().plusDays(40).atTime(10, 0));
+
+        assertThatThrownBy(() -> bookingService.cancelBooking(booking.getId(), adminId))
+                .isInstanceOf(UnauthorizedException.class);
+
+        bookingService.cancelBooking(booking.getId(), userId);
+        assertThatThrownBy(() -> bookingService.cancelBooking(booking.getId(), userId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("already cancelled");
+
+        assertThatThrownBy(() -> bookingService.cancelBooking(-1L, userId))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void cannotCancelWithin24Hours() {
+        LocalDateTime soon = LocalDateTime.now().plusHours(2).truncatedTo(ChronoUnit.HOURS);
+        BookingResponse booking = book(soon);
+
+        assertThatThrownBy(() -> bookingService.cancelBooking(booking.getId(), userId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("24 hours");
+        assertThat(bookingRepository.findById(booking.getId()))
+                .hasValueSatisfying(active -> assertThat(active.getStatus()).isEqualTo(BookingStatus.ACTIVE));
+    }
+
+    @Test
+    void onlyAdminDeletesActiveAndCancelledBookings() {
+        BookingResponse active = book(LocalDate.now().plusDays(41).atTime(9, 0));
+        BookingResponse cancelled = book(LocalDate.now().plusDays(41).atTime(11, 0));
+        bookingService.cancelBooking(cancelled.getId(), userId);
+
+        assertThatThrownBy(() -> bookingService.deleteBooking(active.getId(), userId))
+                .isInstanceOf(UnauthorizedException.class);
+
+        bookingService.deleteBooking(active.getId(), adminId);
+        bookingService.deleteBooking(cancelled.getId(), adminId);
+
+        assertThat(bookingRepository.findById(active.getId())).isEmpty();
+        assertThat(bookingRepository.findById(cancelled.getId())).isEmpty();
+        assertThatThrownBy(() -> bookingService.deleteBooking(active.getId(), adminId))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private BookingResponse book(LocalDateTime start) {
+        return bookingService.createBooking(new BookingRequest(ROOM, start, start.plusMinutes(30)), userId);
+    }
+}
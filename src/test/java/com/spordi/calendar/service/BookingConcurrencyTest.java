@@ -0,0 +1,145 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.repository.BookingRepository;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @BeforeEach
+    void createRooms() {
+        List.of("Stress room 1", "Stress room 2", "Stress room 3", "Stress room 4")
+                .forEach(room -> TestRooms.ensure(roomRepository, roomCatalog, room));
+    }
+
+    @Test
+    void sameSlotIsBookedOnlyOnce() throws Exception {
+        Long userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        LocalDateTime start = LocalDate.now().plusDays(20).atTime(10, 0);
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            tasks.add(() -> tryBook("Stress room 1", start, start.plusHours(1), userId));
+        }
+
+        assertThat(runConcurrently(tasks)).isEqualTo(1);
+        assertNoOverlaps("Stress room 1");
+    }
+
+    @Test
+    void overlappingRequestsNeverPersistOverlaps() throws Exception {
+        Long userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        LocalDateTime dayStart = LocalDate.now().plusDays(21).atTime(8, 0);
+        List<String> rooms = List.of("Stress room 2", "Stress room 3", "Stress room 4");
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String room = rooms.get(i % rooms.size());
+            tasks.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDateTime start = dayStart.plusMinutes(30L * random.nextInt(20));
+                LocalDateTime end = start.plusMinutes(30L * (1 + random.nextInt(4)));
+                return tryBook(room, start, end, userId);
+            });
+        }
+
+        // Igas ruumis peab midagi õnnestuma, aga mitte kattuvalt
+        assertThat(runConcurrently(tasks)).isGreaterThanOrEqualTo(rooms.size());
+        rooms.forEach(this::assertNoOverlaps);
+    }
+
+    // ==================== Helper Methods ====================
+
+    private boolean tryBook(String room, LocalDateTime start, LocalDateTime end, Long userId) {
+        try {
+            bookingService.createBooking(new BookingRequest(room, start, end), userId);
+            return true;
+        } catch (BusinessException e) {
+            return false;
+        }
+    }
+
+    private int runConcurrently(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    return task.call();
+                }));
+            }
+            startGate.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertNoOverlaps(String room) {
+        Long roomId = roomCatalog.resolveId(room);
+        List<Booking> active = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == BookingStatus.ACTIVE)
+                .filter(b -> b.getRoom().getId().equals(roomId))
+                .sorted(Comparator.comparing(Booking::getStartTime))
+                .toList();
+
+        for (int i = 1; i < active.size(); i++) {
+            assertThat(active.get(i).getStartTime())
+                    .as("booking %d overlaps booking %d", active.get(i).getId(), active.get(i - 1).getId())
+                    .isAfterOrEqualTo(active.get(i - 1).getEndTime());
+        }
+    }
+}
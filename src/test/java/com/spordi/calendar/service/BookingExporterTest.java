@@ -0,0 +1,94 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.exception.UnauthorizedException;
+import com.spordi.calendar.model.Booking.BookingStatus;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingExporterTest {
+
+    private static final String ROOM = "Export, room \"A\"";
+
+    @Autowired
+    private BookingExporter bookingExporter;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private Long roomId;
+    private Long adminId;
+    private Long userId;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        roomId = TestRooms.ensure(roomRepository, roomCatalog, ROOM);
+        adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        day = LocalDate.now().plusDays(40).atTime(8, 0);
+
+        if (bookingService.getBookingsByDate(day).isEmpty()) {
+            for (int i = 0; i < 3; i++) {
+                LocalDateTime start = day.plusHours(i);
+                bookingService.createBooking(new BookingRequest(ROOM, start, start.plusHours(1)), userId);
+            }
+        }
+    }
+
+    @Test
+    void exportsCsvWithQuotedFields() throws Exception {
+        List<String> lines = export(BookingExporter.Format.CSV);
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("id,userId,username,roomName");
+        assertThat(lines.subList(1, 4)).allMatch(line -> line.contains(",\"Export, room \"\"A\"\"\","));
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws Exception {
+        List<String> lines = export(BookingExporter.Format.NDJSON);
+
+        assertThat(lines).hasSize(3).allMatch(line -> line.startsWith("{") && line.contains("\"status\":\"ACTIVE\""));
+    }
+
+    @Test
+    void onlyAdminCanExport() {
+        assertThatThrownBy(() -> bookingExporter.checkExport(userId, day, day.plusDays(1)))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    private List<String> export(BookingExporter.Format format) throws Exception {
+        bookingExporter.checkExport(adminId, day, day.plusDays(1));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExporter.export(format, day, day.plusDays(1), roomId, BookingStatus.ACTIVE, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.exception.IdempotencyConflictException;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "booking.idempotency.persist=true")
+@ActiveProfiles("test")
+class BookingIdempotencyTest {
+
+    private static final AtomicInteger SLOT = new AtomicInteger();
+
+    @Autowired
+    private BookingIdempotency bookingIdempotency;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private BookingRequest request;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        LocalDateTime start = LocalDate.now().plusDays(70).atTime(8, 0).plusHours(SLOT.getAndIncrement());
+        request = new BookingRequest("Saal", start, start.plusHours(1));
+        key = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void retryReturnsOriginalBooking() {
+        BookingIdempotency.Result first = bookingIdempotency.createBooking(key, request, userId);
+        BookingIdempotency.Result retry = bookingIdempotency.createBooking(key, request, userId);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.booking()).isEqualTo(first.booking());
+    }
+
+    @Test
+    void retryIsAnsweredFromDatabaseAfterMemoryIsGone() {
+        BookingIdempotency.Result first = bookingIdempotency.createBooking(key, request, userId);
+        bookingIdempotency.evictLocal();
+
+        BookingIdempotency.Result retry = bookingIdempotency.createBooking(key, request, userId);
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.booking()).isEqualTo(first.booking());
+    }
+
+    @Test
+    void sameKeyWithDifferentRequestIsRejected() {
+        bookingIdempotency.createBooking(key, request, userId);
+        BookingRequest other = new BookingRequest("Saal", request.getStartTime().plusDays(1), request.getEndTime().plusDays(1));
+
+        assertThatThrownBy(() -> bookingIdempotency.createBooking(key, other, userId))
+                .isInstanceOf(IdempotencyConflictException.class);
+    }
+}
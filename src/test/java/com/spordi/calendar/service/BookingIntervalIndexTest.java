@@ -0,0 +1,142 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.event.BookingChangedEvent;
+import com.spordi.calendar.model.Booking;
+import com.spordi.calendar.model.Room;
+import com.spordi.calendar.model.User;
+import com.spordi.calendar.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kattuvuse indeks ilma andmebaasita: repositooriumist on kasutusel ainult laadimine ja kattuvuse päring,
+ * mõlemad asendatud ja loetud.
+ */
+class BookingIntervalIndexTest {
+
+    private static final Long ROOM = 1L;
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 4, 0, 0);
+
+    private final List<Booking> stored = new ArrayList<>();
+    private final List<String> queries = new ArrayList<>();
+    private final BookingIntervalIndex index = new BookingIntervalIndex(repository());
+
+    @Test
+    void touchingBookingsDoNotOverlap() {
+        index.load();
+        created(1L, ROOM, 10, 12);
+
+        assertThat(index.hasOverlap(ROOM, at(8), at(10))).isFalse();
+        assertThat(index.hasOverlap(ROOM, at(12), at(14))).isFalse();
+        assertThat(index.hasOverlap(2L, at(10), at(12))).isFalse();
+    }
+
+    @Test
+    void nestedAndPartialOverlapsAreFound() {
+        index.load();
+        created(1L, ROOM, 10, 12);
+        created(2L, ROOM, 14, 18);
+
+        // Uus sees, uus ümber, osaliselt algusest ja lõpust, üle kahe broneeringu
+        assertThat(index.hasOverlap(ROOM, at(15), at(16))).isTrue();
+        assertThat(index.hasOverlap(ROOM, at(9), at(13))).isTrue();
+        assertThat(index.hasOverlap(ROOM, at(9), at(11))).isTrue();
+        assertThat(index.hasOverlap(ROOM, at(17), at(19))).isTrue();
+        assertThat(index.hasOverlap(ROOM, at(11), at(15))).isTrue();
+        assertThat(index.hasOverlap(ROOM, at(12), at(14))).isFalse();
+        assertThat(queries).containsExactly("findByStatusAndEndTimeAfter");
+    }
+
+    @Test
+    void cancelledBookingFreesItsTime() {
+        index.load();
+        created(1L, ROOM, 10, 12);
+
+        index.onBookingChanged(new BookingChangedEvent(BookingChangedEvent.Type.CANCELLED, booking(1L, ROOM, 10, 12), 1L));
+
+        assertThat(index.hasOverlap(ROOM, at(10), at(12))).isFalse();
+        assertThat(index.find(1L)).isEmpty();
+    }
+
+    @Test
+    void staleEntriesAreEvictedOnlyInsideTheClaimedRange() {
+        index.load();
+        // Teises instantsis tühistatud - see instants seda ei näinud
+        created(1L, ROOM, 10, 11);
+        created(2L, ROOM, 11, 13);
+        created(3L, ROOM, 13, 14);
+
+        index.evictOverlapping(ROOM, at(10), at(13));
+
+        assertThat(index.find(1L)).isEmpty();
+        assertThat(index.find(2L)).isEmpty();
+        assertThat(index.find(3L)).isPresent();
+        assertThat(index.hasOverlap(ROOM, at(10), at(13))).isFalse();
+        assertThat(index.hasOverlap(ROOM, at(13), at(14))).isTrue();
+    }
+
+    @Test
+    void databaseAnswersUntilTheIndexIsLoaded() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        stored.add(Booking.builder()
+                .id(1L)
+                .room(Room.builder().id(ROOM).build())
+                .user(User.builder().id(7L).build())
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build());
+
+        assertThat(index.hasOverlap(ROOM, start, start.plusMinutes(30))).isTrue();
+        assertThat(index.find(1L)).isEmpty();
+        assertThat(queries).containsExactly("existsOverlappingBooking");
+
+        index.load();
+
+        assertThat(index.hasOverlap(ROOM, start, start.plusMinutes(30))).isTrue();
+        assertThat(index.hasOverlap(ROOM, start.plusHours(1), start.plusHours(2))).isFalse();
+        assertThat(index.find(1L)).hasValueSatisfying(slot -> assertThat(slot.userId()).isEqualTo(7L));
+        assertThat(queries).containsExactly("existsOverlappingBooking", "findByStatusAndEndTimeAfter");
+    }
+
+    private void created(Long id, Long roomId, int fromHour, int toHour) {
+        index.onBookingChanged(new BookingChangedEvent(BookingChangedEvent.Type.CREATED,
+                booking(id, roomId, fromHour, toHour), 1L));
+    }
+
+    private static BookingResponse booking(Long id, Long roomId, int fromHour, int toHour) {
+        return BookingResponse.builder()
+                .id(id)
+                .roomId(roomId)
+                .userId(7L)
+                .startTime(at(fromHour))
+                .endTime(at(toHour))
+                .build();
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.withHour(hour);
+    }
+
+    // Andmebaas: salvestatud read kattuvad, kui vahemikud lõikuvad
+    private BookingRepository repository() {
+        return (BookingRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{BookingRepository.class}, (proxy, method, args) -> {
+                    queries.add(method.getName());
+                    return switch (method.getName()) {
+                        case "findByStatusAndEndTimeAfter" -> List.copyOf(stored);
+                        case "existsOverlappingBooking" -> stored.stream().anyMatch(booking ->
+                                booking.getRoom().getId().equals(args[0])
+                                        && booking.getStartTime().isBefore((LocalDateTime) args[2])
+                                        && booking.getEndTime().isAfter((LocalDateTime) args[1]));
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+}
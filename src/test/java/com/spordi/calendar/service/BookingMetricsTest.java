@@ -0,0 +1,36 @@
+package com.spordi.calendar.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BookingMetrics metrics = new BookingMetrics(registry, 2);
+
+    @Test
+    void roomTagsAreCapped() {
+        metrics.rejected("conflict", "Room A");
+        metrics.rejected("conflict", "Room B");
+        metrics.rejected("conflict", "Room C");
+        metrics.rejected("conflict", "Room D");
+        metrics.rejected("conflict", "Room A");
+
+        assertThat(registry.get("booking.rejections").counters())
+                .extracting(counter -> counter.getId().getTag("room"))
+                .containsExactlyInAnyOrder("Room A", "Room B", BookingMetrics.OTHER_ROOM);
+        assertThat(registry.get("booking.rejections").tag("room", "Room A").counter().count()).isEqualTo(2);
+        assertThat(registry.get("booking.rejections").tag("room", BookingMetrics.OTHER_ROOM).counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void phaseTimerReturnsResult() {
+        boolean result = metrics.timePhase("overlap", () -> true);
+
+        assertThat(result).isTrue();
+        assertThat(registry.get("booking.create.phase").tag("phase", "overlap").timer().count()).isEqualTo(1);
+    }
+}
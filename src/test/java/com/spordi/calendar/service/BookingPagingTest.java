@@ -0,0 +1,174 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BatchBookingRequest;
+import com.spordi.calendar.dto.BookingPage;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Aktiivsete broneeringute lehekülgede kaupa lugemine (keyset-kursor): järjekord, kursori kontroll,
+ * lehekülje suurus ja vaikimisi aken. Iga test kasutab oma ruume ja päevi.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingPagingTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+    }
+
+    @Test
+    void bookingsStartingAtTheSameTimeArePagedByIdWithoutGapsOrRepeats() {
+        LocalDateTime start = LocalDate.now().plusDays(90).atTime(7, 30);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            String room = "Paging tie room " + i;
+            TestRooms.ensure(roomRepository, roomCatalog, room);
+            ids.add(bookingService.createBooking(new BookingRequest(room, start, start.plusMinutes(30)), userId).getId());
+        }
+
+        // Kõik ruumid, aken ainult selle algusaja jaoks; üks broneering lehekülje kohta
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingPage page = bookingService.getActiveBookings(start, start.plusMinutes(1), null, cursor, 1);
+            page.getItems().forEach(booking -> paged.add(booking.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(paged).containsExactlyElementsOf(ids.stream().sorted().toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"%%%", "bm90LWEtY3Vyc29y", "MjAzMC0wMS0wMVQxMDowMHxhYmM", "MjAzMC0wMS0wMVQxMDowMA", "fDE"})
+    void tamperedCursorIsABadRequest(String cursor) throws Exception {
+        LocalDateTime from = LocalDate.now().plusDays(91).atStartOfDay();
+
+        assertThatThrownBy(() -> bookingService.getActiveBookings(from, from.plusDays(1), null, cursor, 10))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid cursor");
+        mockMvc.perform(get("/api/bookings")
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(1).toString())
+                        .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cursorWithChangedValuesOnlyMovesThePosition() {
+        String room = "Paging cursor room";
+        Long roomId = TestRooms.ensure(roomRepository, roomCatalog, room);
+        LocalDateTime day = LocalDate.now().plusDays(92).atStartOfDay();
+        BookingResponse booking = bookingService.createBooking(
+                new BookingRequest(room, day.withHour(10), day.withHour(11)), userId);
+
+        // Kursor enne aknat = esimene lehekülg; kursor broneeringu kohal = sellest edasi
+        BookingPage beforeWindow = bookingService.getActiveBookings(day, day.plusDays(1), roomId,
+                cursor(day.minusYears(1), Long.MAX_VALUE), 10);
+        BookingPage afterBooking = bookingService.getActiveBookings(day, day.plusDays(1), roomId,
+                cursor(booking.getStartTime(), booking.getId()), 10);
+
+        assertThat(beforeWindow.getItems()).extracting(BookingResponse::getId).containsExactly(booking.getId());
+        assertThat(afterBooking.getItems()).isEmpty();
+        assertThat(afterBooking.getNextCursor()).isNull();
+    }
+
+    @Test
+    void limitIsClampedToTheMaximumPageSize() {
+        String room = "Paging limit room";
+        Long roomId = TestRooms.ensure(roomRepository, roomCatalog, room);
+        LocalDateTime from = LocalDate.now().plusDays(93).atStartOfDay();
+
+        // 3 x 200 pooletunnist aega järjest
+        for (int batch = 0; batch < 3; batch++) {
+            List<BookingRequest> slots = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                LocalDateTime start = from.plusMinutes(30L * (batch * 200 + i));
+                slots.add(new BookingRequest(room, start, start.plusMinutes(30)));
+            }
+            bookingService.createBookings(BatchBookingRequest.builder().slots(slots).allOrNothing(true).build(), userId);
+        }
+
+        BookingPage first = bookingService.getActiveBookings(from, from.plusDays(30), roomId, null, 10_000);
+        BookingPage rest = bookingService.getActiveBookings(from, from.plusDays(30), roomId, first.getNextCursor(), 10_000);
+
+        assertThat(first.getItems()).hasSize(500);
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(rest.getItems()).hasSize(100);
+        assertThat(rest.getNextCursor()).isNull();
+        assertThatThrownBy(() -> bookingService.getActiveBookings(from, from.plusDays(1), roomId, null, 0))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Limit must be positive");
+    }
+
+    @Test
+    void defaultWindowIsSevenDaysFromToday() {
+        String room = "Paging window room";
+        Long roomId = TestRooms.ensure(roomRepository, roomCatalog, room);
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        BookingResponse inside = bookingService.createBooking(
+                new BookingRequest(room, today.plusDays(3).withHour(10), today.plusDays(3).withHour(11)), userId);
+        BookingResponse outside = bookingService.createBooking(
+                new BookingRequest(room, today.plusDays(7).withHour(10), today.plusDays(7).withHour(11)), userId);
+
+        BookingService.Window window = bookingService.resolveWindow(null, null);
+        assertThat(window.from()).isEqualTo(today);
+        assertThat(window.to()).isEqualTo(today.plusDays(7));
+        assertThat(bookingService.resolveWindow(today.plusDays(7), null).to()).isEqualTo(today.plusDays(14));
+
+        assertThat(bookingService.getActiveBookings(null, null, roomId, null, 100).getItems())
+                .extracting(BookingResponse::getId)
+                .contains(inside.getId())
+                .doesNotContain(outside.getId());
+    }
+
+    // Sama kuju nagu BookingCursor.encode
+    private static String cursor(LocalDateTime startTime, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((startTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,67 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BookingRateLimiter limiter = new BookingRateLimiter(
+            Map.of(User.Role.USER, new BookingRateLimiter.Limit(3, 2.0),
+                    User.Role.ADMIN, new BookingRateLimiter.Limit(0, 0.0)),
+            Duration.ofMinutes(10), now::get, registry);
+
+    @Test
+    void burstUpToCapacityThenWaitForRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(1L, User.Role.USER)).isZero();
+        }
+
+        long wait = limiter.tryAcquire(1L, User.Role.USER);
+        assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(registry.get("booking.rate_limited").tag("role", "USER").counter().count()).isEqualTo(1);
+
+        now.addAndGet(wait);
+        assertThat(limiter.tryAcquire(1L, User.Role.USER)).isZero();
+        assertThat(limiter.tryAcquire(1L, User.Role.USER)).isPositive();
+    }
+
+    @Test
+    void usersHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L, User.Role.USER);
+        }
+
+        assertThat(limiter.tryAcquire(1L, User.Role.USER)).isPositive();
+        assertThat(limiter.tryAcquire(2L, User.Role.USER)).isZero();
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L, User.Role.USER);
+        }
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(1L, User.Role.USER)).isZero();
+        }
+        assertThat(limiter.tryAcquire(1L, User.Role.USER)).isPositive();
+    }
+
+    @Test
+    void adminIsNotLimited() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire(1L, User.Role.ADMIN)).isZero();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingPage;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.event.BookingChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingReadCacheTest {
+
+    private static final Long ROOM_ID = 7L;
+
+    private final BookingReadCache cache = new BookingReadCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    // Ruumi versioon (BookingVersions.room) - muudatus suurendab seda
+    private final AtomicLong version = new AtomicLong(5);
+    private final LocalDateTime from = LocalDate.now().plusDays(3).atStartOfDay();
+    private final LocalDateTime to = from.plusDays(1);
+
+    @Test
+    void pageLoadedDuringAChangeIsNotServedForTheNewVersion() {
+        BookingChangedEvent change = new BookingChangedEvent(BookingChangedEvent.Type.CREATED,
+                BookingResponse.builder().id(1L).userId(2L).roomId(ROOM_ID)
+                        .startTime(from.plusHours(10)).endTime(from.plusHours(11)).build(), 2L);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Laadimine luges andmed enne commit'i; muudatuse kuulajad jooksevad laadimise ajal
+        BookingPage stale = cache.activePage(ROOM_ID, from, to, null, 100, version.get(), () -> {
+            loads.incrementAndGet();
+            cache.onBookingChanged(change);
+            version.incrementAndGet();
+            return new BookingPage(List.of(), null);
+        });
+
+        BookingPage fresh = cache.activePage(ROOM_ID, from, to, null, 100, version.get(), () -> {
+            loads.incrementAndGet();
+            return new BookingPage(List.of(change.booking()), null);
+        });
+
+        assertThat(stale.getItems()).isEmpty();
+        assertThat(fresh.getItems()).containsExactly(change.booking());
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void unchangedVersionIsServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            cache.activePage(ROOM_ID, from, to, null, 100, version.get(), () -> {
+                loads.incrementAndGet();
+                return new BookingPage(List.of(), null);
+            });
+        }
+        assertThat(loads).hasValue(1);
+    }
+}
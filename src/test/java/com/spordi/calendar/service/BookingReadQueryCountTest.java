@@ -0,0 +1,101 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingReadQueryCountTest {
+
+    private static final String ROOM = "Query count room";
+    private static final AtomicInteger DAY_OFFSET = new AtomicInteger();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long roomId;
+    private Long userId;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        roomId = TestRooms.ensure(roomRepository, roomCatalog, ROOM);
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        day = LocalDate.now().plusDays(30 + DAY_OFFSET.getAndIncrement()).atTime(8, 0);
+
+        // Kahe kasutaja broneeringud, et N+1 oleks näha
+        for (int i = 0; i < 6; i++) {
+            LocalDateTime start = day.plusHours(i);
+            bookingService.createBooking(new BookingRequest(ROOM, start, start.plusHours(1)),
+                    i % 2 == 0 ? userId : adminId);
+        }
+    }
+
+    @Test
+    void userBookingsUseOneStatement() {
+        List<BookingResponse> bookings = countStatements(() -> bookingService.getUserBookings(userId));
+
+        assertThat(bookings).isNotEmpty().allMatch(b -> b.getUsername() != null);
+    }
+
+    @Test
+    void bookingsByDateUseOneStatement() {
+        List<BookingResponse> bookings = countStatements(() -> bookingService.getBookingsByDate(day));
+
+        assertThat(bookings).hasSizeGreaterThanOrEqualTo(6).allMatch(b -> b.getUsername() != null);
+    }
+
+    @Test
+    void activeBookingPageUsesOneStatement() {
+        List<BookingResponse> bookings = countStatements(() ->
+                bookingService.getActiveBookings(day, day.plusDays(1), roomId, null, 100).getItems());
+
+        // Ruumi nimi tuleb kataloogist, mitte rooms tabelist
+        assertThat(bookings).hasSize(6)
+                .allMatch(b -> b.getUsername() != null)
+                .allMatch(b -> ROOM.equals(b.getRoomName()));
+    }
+
+    private <T> T countStatements(Supplier<T> read) {
+        statistics.clear();
+        T result = read.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package com.spordi.calendar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.event.BookingChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingStreamBroadcasterTest {
+
+    private final BookingStreamBroadcaster broadcaster = broadcaster(100);
+
+    @Test
+    void subscriberGetsOnlyItsOwnRoomsEvents() throws Exception {
+        RecordingEmitter room1 = new RecordingEmitter();
+        RecordingEmitter room2 = new RecordingEmitter();
+        RecordingEmitter allRooms = new RecordingEmitter();
+        broadcaster.subscribe(room1, 1L);
+        broadcaster.subscribe(room2, 2L);
+        broadcaster.subscribe(allRooms, null);
+
+        broadcaster.onBookingChanged(event(BookingChangedEvent.Type.CREATED, 10L, 1L));
+        broadcaster.onBookingChanged(event(BookingChangedEvent.Type.CANCELLED, 11L, 2L));
+        broadcaster.onBookingChanged(event(BookingChangedEvent.Type.DELETED, 12L, 1L));
+
+        assertThat(room1.take(3)).containsExactly("connected", "created 10", "deleted 12");
+        assertThat(room2.take(2)).containsExactly("connected", "cancelled 11");
+        assertThat(allRooms.take(4)).containsExactly("connected", "created 10", "cancelled 11", "deleted 12");
+        assertThat(room1.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(room2.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void slowSubscriberIsClosedWithoutBlockingOthers() throws Exception {
+        BookingStreamBroadcaster broadcaster = broadcaster(2);
+        BlockingEmitter slow = new BlockingEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.subscribe(slow, null);
+        broadcaster.subscribe(fast, null);
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fast.take(1)).containsExactly("connected");
+
+        // Aeglase järjekorras on ruumi kahele; kolmas sulgeb ühenduse. Kiire loeb iga sündmuse kohe ära.
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.onBookingChanged(event(BookingChangedEvent.Type.CREATED, id, 1L));
+            assertThat(fast.take(1)).containsExactly("created " + id);
+        }
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Suletud tellijale uusi sündmusi ei panda, teised saavad edasi
+        slow.release.countDown();
+        broadcaster.onBookingChanged(event(BookingChangedEvent.Type.CREATED, 4L, 1L));
+        assertThat(fast.take(1)).containsExactly("created 4");
+        assertThat(slow.take(3)).containsExactly("connected", "created 1", "created 2");
+        assertThat(slow.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void closedSubscriberIsDropped() throws Exception {
+        ClosedEmitter closed = new ClosedEmitter();
+        RecordingEmitter open = new RecordingEmitter();
+        broadcaster.subscribe(closed, null);
+        broadcaster.subscribe(open, null);
+        assertThat(closed.failed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        broadcaster.onBookingChanged(event(BookingChangedEvent.Type.CREATED, 1L, 1L));
+        broadcaster.onBookingChanged(event(BookingChangedEvent.Type.CANCELLED, 1L, 1L));
+
+        assertThat(open.take(3)).containsExactly("connected", "created 1", "cancelled 1");
+        assertThat(closed.attempts).hasValue(1);
+    }
+
+    private static BookingStreamBroadcaster broadcaster(int queueCapacity) {
+        return new BookingStreamBroadcaster(new ObjectMapper().registerModule(new JavaTimeModule()), queueCapacity, 60_000);
+    }
+
+    private static BookingChangedEvent event(BookingChangedEvent.Type type, Long bookingId, Long roomId) {
+        BookingResponse booking = BookingResponse.builder().id(bookingId).roomId(roomId).status("ACTIVE").build();
+        return new BookingChangedEvent(type, booking, 1L);
+    }
+
+    // "connected" / "created 10": kommentaar või sündmuse nimi ja broneeringu id
+    private static String describe(Set<DataWithMediaType> frame) {
+        String text = frame.stream().map(item -> item.getData().toString()).collect(Collectors.joining());
+        if (text.startsWith(":")) {
+            return text.substring(1).trim();
+        }
+        String name = text.substring("event:".length(), text.indexOf('\n'));
+        String id = text.replaceAll("(?s).*\"id\":(\\d+).*", "$1");
+        return name + " " + id;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            frames.add(describe(items));
+        }
+
+        List<String> take(int count) throws InterruptedException {
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String frame = frames.poll(5, TimeUnit.SECONDS);
+                assertThat(frame).as("frame %d of %d", i + 1, count).isNotNull();
+                taken.add(frame);
+            }
+            return taken;
+        }
+    }
+
+    // Jääb esimese saatmise juures ootama, kuni test lubab edasi
+    private static class BlockingEmitter extends RecordingEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.send(items);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+
+    private static class ClosedEmitter extends SseEmitter {
+
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch failed = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            attempts.incrementAndGet();
+            failed.countDown();
+            throw new IOException("Broken pipe");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BatchBookingRequest;
+import com.spordi.calendar.dto.BookingChanges;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingSyncTest {
+
+    private static final String ROOM = "Sync room";
+
+    @Autowired
+    private BookingSync bookingSync;
+
+    @Autowired
+    private BookingCalendarFeed bookingCalendarFeed;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingChangeSequence changeSequence;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private Long userId;
+    private Long adminId;
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        roomId = TestRooms.ensure(roomRepository, roomCatalog, ROOM);
+    }
+
+    @Test
+    void changesSinceTokenContainOnlyNewChangesAndTombstones() {
+        long token = currentToken();
+        LocalDateTime start = LocalDate.now().plusDays(65).atTime(9, 0);
+
+        BookingResponse cancelled = book(start);
+        BookingResponse deleted = book(start.plusHours(1));
+        BookingResponse kept = book(start.plusHours(2));
+        bookingService.cancelBooking(cancelled.getId(), userId);
+        bookingService.deleteBooking(deleted.getId(), adminId);
+
+        BookingChanges changes = bookingSync.changes(token, roomId, null, null);
+
+        assertThat(changes.getChanged())
+                .extracting(BookingResponse::getId, BookingResponse::getStatus)
+                .containsExactly(
+                        tuple(kept.getId(), "ACTIVE"),
+                        tuple(cancelled.getId(), "CANCELLED"));
+        assertThat(changes.getDeleted()).containsExactly(deleted.getId());
+        assertThat(changes.getToken()).isGreaterThan(token);
+        assertThat(changes.isHasMore()).isFalse();
+
+        assertThat(bookingSync.changes(changes.getToken(), roomId, null, null).getChanged()).isEmpty();
+    }
+
+    @Test
+    void pagesFollowSequenceOrder() {
+        long token = currentToken();
+        LocalDateTime start = LocalDate.now().plusDays(66).atTime(9, 0);
+        BookingResponse first = book(start);
+        BookingResponse second = book(start.plusHours(1));
+
+        BookingChanges page = bookingSync.changes(token, roomId, null, 1);
+        assertThat(page.getChanged()).extracting(BookingResponse::getId).containsExactly(first.getId());
+        assertThat(page.isHasMore()).isTrue();
+
+        BookingChanges next = bookingSync.changes(page.getToken(), roomId, null, 1);
+        assertThat(next.getChanged()).extracting(BookingResponse::getId).containsExactly(second.getId());
+    }
+
+    @Test
+    void roomFeedIsUpdatedIncrementally() {
+        LocalDateTime start = LocalDate.now().plusDays(67).atTime(9, 0);
+        BookingResponse booking = book(start);
+
+        BookingCalendarFeed.Rendered feed = bookingCalendarFeed.forRoom(roomId);
+        assertThat(feed.body())
+                .startsWith("BEGIN:VCALENDAR\r\n")
+                .contains("UID:booking-" + booking.getId() + "@spordi-calendar")
+                .endsWith("END:VCALENDAR\r\n");
+        assertThat(bookingCalendarFeed.forRoom(roomId).version()).isEqualTo(feed.version());
+
+        bookingService.cancelBooking(booking.getId(), userId);
+
+        BookingCalendarFeed.Rendered updated = bookingCalendarFeed.forRoom(roomId);
+        assertThat(updated.version()).isGreaterThan(feed.version());
+        assertThat(updated.body()).doesNotContain("UID:booking-" + booking.getId() + "@");
+    }
+
+    @Test
+    void batchTakesConsecutiveNumbersAndRefusedCancelTakesNone() {
+        LocalDateTime start = LocalDate.now().plusDays(68).atTime(9, 0);
+
+        List<BookingResponse> created = bookingService.createBookings(BatchBookingRequest.builder()
+                .slots(List.of(new BookingRequest(ROOM, start, start.plusMinutes(30)),
+                        new BookingRequest(ROOM, start.plusHours(1), start.plusHours(1).plusMinutes(30)),
+                        new BookingRequest(ROOM, start.plusHours(2), start.plusHours(2).plusMinutes(30))))
+                .build(), userId).getCreated();
+
+        long first = created.get(0).getChangeSeq();
+        assertThat(created).extracting(BookingResponse::getChangeSeq).containsExactly(first, first + 1, first + 2);
+
+        // Teise kasutaja broneeringut tühistada ei saa: numbrit ei võeta
+        long token = changeSequence.stableToken();
+        assertThatThrownBy(() -> bookingService.cancelBooking(created.get(0).getId(), adminId))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(changeSequence.stableToken()).isEqualTo(token);
+    }
+
+    private long currentToken() {
+        BookingChanges changes = bookingSync.changes(0, roomId, null, 1000);
+        while (changes.isHasMore()) {
+            changes = bookingSync.changes(changes.getToken(), roomId, null, 1000);
+        }
+        return changes.getToken();
+    }
+
+    private BookingResponse book(LocalDateTime start) {
+        return bookingService.createBooking(new BookingRequest(ROOM, start, start.plusMinutes(30)), userId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.spordi.calendar.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ruumi aja piirid: avatud 07:30 kuni südaööni (closesAt 00:00), 45-minutilised ajad
+ */
+class RoomCatalogEntryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final RoomCatalog.Entry room = new RoomCatalog.Entry(1L, "Late room", 4,
+            LocalTime.of(7, 30), LocalTime.MIDNIGHT, 45, 0);
+
+    @Test
+    void midnightClosingIsEndOfDay() {
+        assertThat(room.opensOn(DAY)).isEqualTo(DAY.atTime(7, 30));
+        assertThat(room.closesOn(DAY)).isEqualTo(DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void slotsAreCountedFromOpeningTime() {
+        assertThat(room.isOnSlot(DAY, DAY.atTime(7, 30))).isTrue();
+        assertThat(room.isOnSlot(DAY, DAY.atTime(8, 15))).isTrue();
+        assertThat(room.isOnSlot(DAY, DAY.atTime(9, 0))).isTrue();
+        assertThat(room.isOnSlot(DAY, DAY.atTime(8, 0))).isFalse();
+        assertThat(room.isOnSlot(DAY, DAY.atTime(8, 15, 30))).isFalse();
+    }
+
+    @Test
+    void closingAtMidnightIsOnSlotOfThePreviousDay() {
+        // 07:30 + 22 × 45 min = 24:00; kuupäev on juba järgmine päev
+        assertThat(room.isOnSlot(DAY, DAY.plusDays(1).atStartOfDay())).isTrue();
+        assertThat(room.alignDown(DAY, DAY.atTime(23, 59))).isEqualTo(DAY.atTime(23, 15));
+    }
+
+    @Test
+    void alignRoundsToNearestSlotBoundary() {
+        assertThat(room.alignDown(DAY, DAY.atTime(8, 0))).isEqualTo(DAY.atTime(7, 30));
+        assertThat(room.alignUp(DAY, DAY.atTime(8, 0))).isEqualTo(DAY.atTime(8, 15));
+        assertThat(room.alignUp(DAY, DAY.atTime(8, 15))).isEqualTo(DAY.atTime(8, 15));
+
+        // Enne avamist: piirid jätkuvad avamisajast tagasi
+        assertThat(room.alignDown(DAY, DAY.atTime(7, 0))).isEqualTo(DAY.atTime(6, 45));
+    }
+}
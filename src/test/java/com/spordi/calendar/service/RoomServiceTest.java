@@ -0,0 +1,150 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.dto.RoomRequest;
+import com.spordi.calendar.dto.RoomResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.exception.UnauthorizedException;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Piiratud lahtiolekuaja ja aja pikkusega ruumid: ruumi andmete kontroll ja broneeringu aegade kontroll
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RoomServiceTest {
+
+    private static final AtomicInteger ROOM_NUMBER = new AtomicInteger();
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private Long adminId;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        day = LocalDate.now().plusDays(80);
+    }
+
+    // ==================== Room validation ====================
+
+    @Test
+    void onlyAdminCanCreateRooms() {
+        assertThatThrownBy(() -> roomService.createRoom(room(LocalTime.of(8, 0), LocalTime.of(20, 0), 60), userId))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void roomMustOpenBeforeItCloses() {
+        assertThatThrownBy(() -> roomService.createRoom(room(LocalTime.of(20, 0), LocalTime.of(8, 0), 60), adminId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Room must open before it closes");
+    }
+
+    @Test
+    void openingHoursMustBeWholeSlots() {
+        assertThatThrownBy(() -> roomService.createRoom(room(LocalTime.of(8, 0), LocalTime.of(20, 0), 50), adminId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Opening hours must be a whole number of 50-minute slots");
+        assertThatThrownBy(() -> roomService.createRoom(room(LocalTime.of(8, 0), LocalTime.of(20, 0), 0), adminId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Slot length must be 1-1440 minutes");
+    }
+
+    @Test
+    void midnightClosingCountsAsEndOfDay() {
+        // 07:30-24:00 = 22 × 45 min
+        RoomResponse created = roomService.createRoom(room(LocalTime.of(7, 30), LocalTime.MIDNIGHT, 45), adminId);
+
+        LocalDateTime lastSlot = day.atTime(23, 15);
+        assertThat(bookingService.createBooking(
+                new BookingRequest(created.getName(), lastSlot, lastSlot.plusMinutes(45)), userId).getEndTime())
+                .isEqualTo(day.plusDays(1).atStartOfDay());
+    }
+
+    // ==================== Booking times ====================
+
+    @Test
+    void bookingOutsideOpeningHoursIsRejected() {
+        String name = roomService.createRoom(room(LocalTime.of(8, 0), LocalTime.of(20, 0), 60), adminId).getName();
+
+        assertThatThrownBy(() -> book(name, day.atTime(7, 0), day.atTime(8, 0)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage(name + " is open 08:00-20:00");
+        assertThatThrownBy(() -> book(name, day.atTime(19, 0), day.atTime(21, 0)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage(name + " is open 08:00-20:00");
+        assertThat(book(name, day.atTime(19, 0), day.atTime(20, 0))).isNotNull();
+    }
+
+    @Test
+    void bookingOffSlotIsRejected() {
+        String name = roomService.createRoom(room(LocalTime.of(8, 0), LocalTime.of(20, 0), 60), adminId).getName();
+
+        assertThatThrownBy(() -> book(name, day.atTime(8, 30), day.atTime(9, 30)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage(name + " is booked in 60-minute slots from 08:00");
+        assertThatThrownBy(() -> book(name, day.atTime(8, 0), day.atTime(8, 30)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage(name + " is booked in 60-minute slots from 08:00");
+    }
+
+    @Test
+    void slotChangeIsRejectedWhenBookingsNoLongerFit() {
+        RoomResponse created = roomService.createRoom(room(LocalTime.of(8, 0), LocalTime.of(20, 0), 60), adminId);
+        book(created.getName(), day.atTime(8, 0), day.atTime(9, 0));
+        book(created.getName(), day.atTime(9, 0), day.atTime(10, 0));
+
+        // 90-minutilises jaotuses jääksid mõlemad ajale 08:00
+        RoomRequest update = room(LocalTime.of(8, 0), LocalTime.of(20, 0), 90);
+        update.setName(created.getName());
+        assertThatThrownBy(() -> roomService.updateRoom(created.getId(), update, adminId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Existing bookings do not fit 90-minute slots from 08:00");
+
+        // Muudatus keerati tagasi: vana jaotus kehtib edasi
+        assertThat(roomService.getRooms()).filteredOn(room -> room.getId().equals(created.getId()))
+                .singleElement()
+                .satisfies(room -> assertThat(room.getSlotMinutes()).isEqualTo(60));
+    }
+
+    // ==================== Helper Methods ====================
+
+    private RoomRequest room(LocalTime opensAt, LocalTime closesAt, int slotMinutes) {
+        return RoomRequest.builder()
+                .name("Restricted room " + ROOM_NUMBER.incrementAndGet())
+                .capacity(6)
+                .opensAt(opensAt)
+                .closesAt(closesAt)
+                .slotMinutes(slotMinutes)
+                .build();
+    }
+
+    private BookingResponse book(String room, LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(new BookingRequest(room, start, end), userId);
+    }
+}
@@ -0,0 +1,146 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.dto.RoomUsageReport;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RoomUsageStatsServiceTest {
+
+    private static final AtomicInteger ROOM_NUMBER = new AtomicInteger();
+
+    @Autowired
+    private RoomUsageStatsService roomUsageStatsService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long adminId;
+    private String room;
+    private Long roomId;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("user1").orElseThrow().getId();
+        adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        room = "Stats room " + ROOM_NUMBER.incrementAndGet();
+        roomId = TestRooms.ensure(roomRepository, roomCatalog, room);
+        day = LocalDate.now().plusDays(50);
+
+        // 10:30-12:00 → 30 min tunnis 10, 60 min tunnis 11; 14:00-15:00 tühistatakse
+        bookingService.createBooking(new BookingRequest(room, day.atTime(10, 30), day.atTime(12, 0)), userId);
+        BookingResponse cancelled = bookingService.createBooking(
+                new BookingRequest(room, day.atTime(14, 0), day.atTime(15, 0)), userId);
+        bookingService.cancelBooking(cancelled.getId(), userId);
+    }
+
+    @Test
+    void aggregatesAreMaintainedOnCreateAndCancel() {
+        RoomUsageReport usage = dayReport();
+
+        assertThat(usage.getBookedMinutes()).isEqualTo(90);
+        assertThat(usage.getBookings()).isEqualTo(2);
+        assertThat(usage.getCancellations()).isEqualTo(1);
+        assertThat(usage.getCancellationRate()).isEqualTo(0.5);
+        assertThat(usage.getPeakHour()).isEqualTo(11);
+    }
+
+    @Test
+    void rebuildProducesSameAggregates() {
+        RoomUsageReport before = dayReport();
+
+        roomUsageStatsService.rebuild(adminId);
+
+        assertThat(dayReport()).isEqualTo(before);
+    }
+
+    @Test
+    void bookingsMadeDuringRebuildAreCounted() {
+        LocalDate nextDay = day.plusDays(1);
+
+        // 20 tunnist broneeringut samal ajal, kui statistikat arvutatakse uuesti
+        CompletableFuture<Void> booking = CompletableFuture.runAsync(() -> {
+            for (int hour = 0; hour < 20; hour++) {
+                LocalDateTime start = nextDay.atTime(hour, 0);
+                bookingService.createBooking(new BookingRequest(room, start, start.plusHours(1)), userId);
+            }
+        });
+        roomUsageStatsService.rebuild(adminId);
+        booking.join();
+
+        List<RoomUsageReport> report = roomUsageStatsService.report(nextDay, nextDay.plusDays(1), roomId,
+                RoomUsageStatsService.Granularity.DAY);
+        assertThat(report).singleElement().satisfies(usage -> {
+            assertThat(usage.getBookedMinutes()).isEqualTo(20 * 60);
+            assertThat(usage.getBookings()).isEqualTo(20);
+        });
+    }
+
+    @Test
+    void rebuildIsRefusedWhileAnotherInstanceRunsIt() {
+        jdbcTemplate.update("UPDATE scheduled_locks SET locked_until = ?, locked_by = 'other' WHERE name = 'room-usage-rebuild'",
+                LocalDateTime.now().plusHours(1));
+        try {
+            assertThatThrownBy(() -> roomUsageStatsService.rebuild(adminId))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("Rebuild is already running");
+        } finally {
+            jdbcTemplate.update("UPDATE scheduled_locks SET locked_until = ? WHERE name = 'room-usage-rebuild'",
+                    LocalDateTime.now());
+        }
+
+        assertThat(roomUsageStatsService.rebuild(adminId).getBookings()).isPositive();
+    }
+
+    @Test
+    void monthReportSumsDays() {
+        List<RoomUsageReport> report = roomUsageStatsService.report(day.withDayOfMonth(1),
+                day.withDayOfMonth(1).plusMonths(1), roomId, RoomUsageStatsService.Granularity.MONTH);
+
+        assertThat(report).singleElement()
+                .satisfies(month -> assertThat(month.getPeriodStart()).isEqualTo(day.withDayOfMonth(1)))
+                .satisfies(month -> assertThat(month.getBookedMinutes()).isEqualTo(90));
+    }
+
+    private RoomUsageReport dayReport() {
+        List<RoomUsageReport> report = roomUsageStatsService.report(day, day.plusDays(1), roomId,
+                RoomUsageStatsService.Granularity.DAY);
+        assertThat(report).hasSize(1);
+        assertThat(report.get(0).getRoomName()).isEqualTo(room);
+        return report.get(0);
+    }
+}
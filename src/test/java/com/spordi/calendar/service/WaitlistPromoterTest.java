@@ -0,0 +1,148 @@
+package com.spordi.calendar.service;
+
+import com.spordi.calendar.TestRooms;
+import com.spordi.calendar.dto.BookingRequest;
+import com.spordi.calendar.dto.BookingResponse;
+import com.spordi.calendar.dto.WaitlistEntryResponse;
+import com.spordi.calendar.exception.BusinessException;
+import com.spordi.calendar.model.User;
+import com.spordi.calendar.model.WaitlistEntry;
+import com.spordi.calendar.repository.RoomRepository;
+import com.spordi.calendar.repository.UserRepository;
+import com.spordi.calendar.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WaitlistPromoterTest {
+
+    private static final String ROOM = "Waitlist room";
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private Long ownerId;
+    private Long firstWaiterId;
+    private Long secondWaiterId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userRepository.findByUsername("user1").orElseThrow().getId();
+        firstWaiterId = ensureUser("waiter1");
+        secondWaiterId = ensureUser("waiter2");
+        TestRooms.ensure(roomRepository, roomCatalog, ROOM);
+    }
+
+    @Test
+    void firstWaiterGetsFreedSlot() throws Exception {
+        LocalDateTime start = LocalDate.now().plusDays(55).atTime(9, 0);
+        BookingRequest slot = new BookingRequest(ROOM, start, start.plusHours(1));
+
+        BookingResponse booking = bookingService.createBooking(slot, ownerId);
+        WaitlistEntryResponse first = waitlistService.join(slot, firstWaiterId);
+        WaitlistEntryResponse second = waitlistService.join(slot, secondWaiterId);
+
+        bookingService.cancelBooking(booking.getId(), ownerId);
+
+        WaitlistEntry promoted = awaitStatus(first.getId(), WaitlistEntry.Status.PROMOTED);
+        assertThat(promoted.getBookingId()).isNotNull();
+        assertThat(waitlistRepository.findById(second.getId()))
+                .hasValueSatisfying(entry -> assertThat(entry.getStatus()).isEqualTo(WaitlistEntry.Status.WAITING));
+        assertThat(bookingService.getUserBookings(firstWaiterId))
+                .anySatisfy(created -> assertThat(created.getStartTime()).isEqualTo(start));
+    }
+
+    @Test
+    void burstOfCancellationsPromotesEachInterval() throws Exception {
+        LocalDateTime start = LocalDate.now().plusDays(56).atTime(9, 0);
+        BookingRequest early = new BookingRequest(ROOM, start, start.plusHours(1));
+        BookingRequest late = new BookingRequest(ROOM, start.plusHours(1), start.plusHours(2));
+
+        BookingResponse earlyBooking = bookingService.createBooking(early, ownerId);
+        BookingResponse lateBooking = bookingService.createBooking(late, ownerId);
+        WaitlistEntryResponse earlyWaiter = waitlistService.join(early, firstWaiterId);
+        WaitlistEntryResponse lateWaiter = waitlistService.join(late, secondWaiterId);
+
+        bookingService.cancelBooking(earlyBooking.getId(), ownerId);
+        bookingService.cancelBooking(lateBooking.getId(), ownerId);
+
+        awaitStatus(earlyWaiter.getId(), WaitlistEntry.Status.PROMOTED);
+        awaitStatus(lateWaiter.getId(), WaitlistEntry.Status.PROMOTED);
+    }
+
+    @Test
+    void freeSlotCannotBeWaitedFor() {
+        LocalDateTime start = LocalDate.now().plusDays(57).atTime(9, 0);
+
+        assertThatThrownBy(() -> waitlistService.join(new BookingRequest(ROOM, start, start.plusHours(1)), firstWaiterId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("free");
+    }
+
+    @Test
+    void leftEntryIsNotPromoted() throws Exception {
+        LocalDateTime start = LocalDate.now().plusDays(58).atTime(9, 0);
+        BookingRequest slot = new BookingRequest(ROOM, start, start.plusHours(1));
+
+        BookingResponse booking = bookingService.createBooking(slot, ownerId);
+        WaitlistEntryResponse left = waitlistService.join(slot, firstWaiterId);
+        WaitlistEntryResponse stays = waitlistService.join(slot, secondWaiterId);
+        waitlistService.leave(left.getId(), firstWaiterId);
+
+        bookingService.cancelBooking(booking.getId(), ownerId);
+
+        awaitStatus(stays.getId(), WaitlistEntry.Status.PROMOTED);
+        assertThat(waitlistRepository.findById(left.getId()))
+                .hasValueSatisfying(entry -> assertThat(entry.getStatus()).isEqualTo(WaitlistEntry.Status.CANCELLED));
+    }
+
+    // Edutamine käib taustalõimes; oota, kuni kirje on soovitud olekus
+    private WaitlistEntry awaitStatus(Long entryId, WaitlistEntry.Status status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        WaitlistEntry entry;
+        do {
+            entry = waitlistRepository.findById(entryId).orElseThrow();
+            if (entry.getStatus() == status) {
+                return entry;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+        assertThat(entry.getStatus()).isEqualTo(status);
+        return entry;
+    }
+
+    private Long ensureUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseGet(() -> userRepository.save(User.builder()
+                        .username(username)
+                        .fullName(username)
+                        .role(User.Role.USER)
+                        .build()))
+                .getId();
+    }
+}